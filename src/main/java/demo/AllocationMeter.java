@@ -0,0 +1,47 @@
+package demo;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Coût mémoire des benchmarks : octets alloués par le thread courant
+ * (com.sun.management.ThreadMXBean, compteur TLAB de HotSpot, sans effet sur le GC)
+ * et nombre / temps cumulés des collections (GarbageCollectorMXBean, tous collecteurs).
+ *
+ * Usage : Snapshot s = AllocationMeter.snapshot(); ...; Snapshot d = AllocationMeter.snapshot().minus(s);
+ * allocatedBytes vaut -1 si la JVM ne fournit pas la mesure par thread.
+ */
+final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private AllocationMeter() {}
+
+    record Snapshot(long allocatedBytes, long gcCount, long gcTimeMs) {
+        /** Différence this - before (allocatedBytes reste -1 si non supporté). */
+        Snapshot minus(Snapshot before) {
+            long alloc = (allocatedBytes < 0 || before.allocatedBytes < 0) ? -1 : allocatedBytes - before.allocatedBytes;
+            return new Snapshot(alloc, gcCount - before.gcCount, gcTimeMs - before.gcTimeMs);
+        }
+    }
+
+    static Snapshot snapshot() {
+        long count = 0, time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return new Snapshot(threadAllocatedBytes(), count, time);
+    }
+
+    /** Octets alloués depuis le démarrage du thread courant, -1 si non supporté. */
+    static long threadAllocatedBytes() {
+        return (THREADS == null) ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean b)) return null;
+        if (!b.isThreadAllocatedMemorySupported()) return null;
+        if (!b.isThreadAllocatedMemoryEnabled()) b.setThreadAllocatedMemoryEnabled(true);
+        return b;
+    }
+}
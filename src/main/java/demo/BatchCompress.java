@@ -0,0 +1,102 @@
+package demo;
+
+import io.compress.intpack.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Compression en lot d'une arborescence, dans une seule JVM.
+ *
+ * Pipeline par fichier : lecture -> compression -> écriture.
+ * - lecture et écriture dans un thread virtuel par fichier (les attentes d'I/O ne
+ *   bloquent pas de thread système),
+ * - compression sur un pool fixe de threads CPU (par défaut un par cœur),
+ * - contre-pression : un sémaphore borne le nombre de fichiers « en vol » (lus mais
+ *   pas encore écrits), donc la mémoire occupée, quelle que soit la taille de l'arbre.
+ *
+ * Sortie : même arborescence relative sous outDir, suffixe ".comp.bin"
+ * (format DataIO.saveCompressed, relisible par « SaveExample decompress »).
+ */
+public final class BatchCompress {
+    private BatchCompress() {}
+
+    /** Bilan d'un lot. */
+    public record Summary(int files, int failed, long values, long compressedWords, long nanos) {
+        public double ratio() { return values == 0 ? 0.0 : (double) compressedWords / values; }
+        public double seconds() { return nanos / 1e9; }
+        public double inputMBPerSecond() { return nanos == 0 ? 0.0 : values * 4.0 / 1e6 / seconds(); }
+        public double filesPerSecond() { return nanos == 0 ? 0.0 : files / seconds(); }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "files=%d failed=%d values=%d words=%d ratio=%.3f time=%.3f s throughput=%.1f MB/s (%.1f files/s)",
+                    files, failed, values, compressedWords, ratio(), seconds(), inputMBPerSecond(), filesPerSecond());
+        }
+    }
+
+    /**
+     * @param cpuThreads threads de compression (<= 0 : nombre de cœurs)
+     * @param inFlight   fichiers chargés simultanément au plus (<= 0 : 2 x cpuThreads)
+     */
+    public static Summary run(Path inDir, Path outDir, CompressionType type, int cpuThreads, int inFlight)
+            throws IOException, InterruptedException {
+        if (cpuThreads <= 0) cpuThreads = Runtime.getRuntime().availableProcessors();
+        if (inFlight <= 0) inFlight = 2 * cpuThreads;
+        List<Path> inputs;
+        try (Stream<Path> s = Files.walk(inDir)) {
+            inputs = s.filter(Files::isRegularFile).toList();
+        }
+
+        final Semaphore permits = new Semaphore(inFlight);
+        final AtomicInteger ok = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final LongAdder values = new LongAdder();
+        final LongAdder words = new LongAdder();
+        long t0 = System.nanoTime();
+        ExecutorService cpu = Executors.newFixedThreadPool(cpuThreads);
+        try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Path in : inputs) {
+                permits.acquire(); // contre-pression : attend qu'un fichier en vol soit écrit
+                io.submit(() -> {
+                    try {
+                        int[] data = loadInts(in.toFile());
+                        int[] comp = cpu.submit(() -> CompressorFactory.create(type, null).compress(data)).get();
+                        Path out = outDir.resolve(inDir.relativize(in).toString() + ".comp.bin");
+                        Files.createDirectories(out.getParent());
+                        DataIO.saveCompressed(out.toFile(), type, data.length, comp);
+                        values.add(data.length);
+                        words.add(comp.length);
+                        ok.incrementAndGet();
+                    } catch (Exception e) {
+                        Throwable cause = (e instanceof ExecutionException && e.getCause() != null) ? e.getCause() : e;
+                        System.err.println("FAILED " + in + ": " + cause);
+                        failed.incrementAndGet();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } finally {
+            cpu.shutdown();
+        }
+        return new Summary(ok.get(), failed.get(), values.sum(), words.sum(), System.nanoTime() - t0);
+    }
+
+    // Même règle que SaveExample : .bin = tableau binaire DataIO, sinon texte (un entier par ligne).
+    static int[] loadInts(File f) throws IOException {
+        if (f.getName().toLowerCase(Locale.ROOT).endsWith(".bin")) return DataIO.loadIntArray(f);
+        return DataIO.loadIntArrayFromText(f);
+    }
+}
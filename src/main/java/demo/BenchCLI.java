@@ -6,6 +6,7 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -26,12 +27,104 @@ import java.util.regex.Pattern;
  *   --runs R            : nombre de runs chronométrés par variante (défaut 7)
  *   --csv <path>        : écrit les résultats en CSV
  *   --table-out <path>  : écrit le tableau ASCII dans ce fichier
- *   --variants v1,v2    : sous-ensemble (CROSSING,NO_CROSSING,OVERFLOW)
+ *   --variants v1,v2    : sous-ensemble (CROSSING,NO_CROSSING,OVERFLOW,...)
+ *                         par défaut toutes sauf ELIAS_FANO (qui exige une entrée triée)
+ *   --get-ops N         : ajoute le mode accès aléatoire : N appels get(i) par motif
+ *                         d'accès (séquentiel, uniforme, Zipf), avec ns/op et p50/p99/p999
+ *   --threads N         : ajoute le bench de montée en charge : compress, decompress et get
+ *                         lancés en parallèle sur 1, 2, 4, ... N threads
+ *   --duration S        : durée de chaque mesure multi-thread en secondes (défaut 1)
+ *   --repeats R         : mesures par point multi-thread, la médiane est gardée (défaut 3)
+ *   --shared-output     : ajoute les lignes "shared" : sorties partagées entre threads
+ *   --scaling-csv <path>: écrit les résultats multi-thread en CSV
+ *
+ * Mode get : ns/op = meilleure de 3 boucles serrées sans chronométrage individuel ;
+ * les percentiles chronomètrent chaque appel (System.nanoTime, dont le coût propre,
+ * ~20 ns, est inclus) dans un LatencyHistogram. Les indices sont tirés avant la mesure.
+ *
+ * Mode multi-thread : le buffer compressé (et le compresseur, sans état) est partagé
+ * en lecture seule par tous les threads ; chaque thread a sa copie des données à
+ * compresser, son tableau de sortie et ses indices (allocations séparées), et GET
+ * écrit son résultat dans un emplacement à 128 octets de celui du voisin : pas de
+ * faux partage des sorties (output = private). Avec --shared-output, les mêmes mesures
+ * sont refaites avec un seul tableau de sortie pour DECOMPRESS et des emplacements
+ * GET contigus (même ligne de cache), ce qui fait apparaître le coût du faux partage
+ * (output = shared ; COMPRESS, dont la sortie est allouée par le codec, n'a pas de
+ * variante partagée). Chaque thread boucle jusqu'à l'échéance et compte les valeurs
+ * traitées. Avant le point à 1 thread, chaque workload est répété sur 1 thread
+ * jusqu'à ce que son débit se stabilise (JIT compilé) ; chaque point est ensuite
+ * mesuré --repeats fois et la mesure médiane (débit agrégé) est gardée.
+ * Efficacité = débit agrégé à t threads / (t x débit à 1 thread) : 1.0 = passage à
+ * l'échelle parfait, une chute signale la saturation de la bande passante mémoire ou
+ * de la contention. Au-delà du nombre de coeurs, les threads se partagent les CPU et
+ * l'efficacité baisse mécaniquement (avertissement affiché).
  */
 public final class BenchCLI {
 
     private record Stats(double medianMs, double iqrMs) {}
 
+    /** Octets alloués par appel (-1 si non mesurable) et GC pendant les runs chronométrés. */
+    private record Alloc(long compBytesPerOp, long decompBytesPerOp, long gcCount, long gcTimeMs) {}
+
+    private record GetStats(double nsPerOp, long p50Ns, long p99Ns, long p999Ns) {}
+
+    /** Motifs d'accès du mode get (préfixe des colonnes CSV). */
+    private enum Access {
+        SEQUENTIAL("seq"), UNIFORM("uniform"), ZIPF("zipf");
+
+        final String prefix;
+
+        Access(String prefix) { this.prefix = prefix; }
+
+        int[] indices(int n, int ops, Random rnd) {
+            int[] idx = new int[ops];
+            double logN = Math.log(n + 1.0);
+            for (int i = 0; i < ops; i++) {
+                switch (this) {
+                    case SEQUENTIAL: idx[i] = i % n; break;
+                    case UNIFORM: idx[i] = rnd.nextInt(n); break;
+                    default: {
+                        // Zipf (s = 1) par inversion de la loi continue ; le rang est dispersé
+                        // dans le tableau pour que les valeurs chaudes ne soient pas contiguës
+                        long rank = Math.min(n - 1, (long) Math.exp(rnd.nextDouble() * logN) - 1);
+                        idx[i] = (int) ((rank * 2654435761L) % n);
+                    }
+                }
+            }
+            return idx;
+        }
+    }
+
+    private enum Workload { COMPRESS, DECOMPRESS, GET }
+
+    /** Sorties propres à chaque thread, ou partagées (faux partage). */
+    private enum Output { PRIVATE, SHARED }
+
+    private record ScalingRow(CompressionType type, Workload workload, int threads,
+                              double aggMValuesPerSec, double perThreadMin, double perThreadMax, double efficiency,
+                              double allocBytesPerValue, long gcCount, long gcTimeMs, Output output) {}
+
+    /** Mesure multi-thread : débit de chaque thread, octets alloués et valeurs traitées au total, GC. */
+    private record Point(double[] rates, long allocBytes, long values, long gcCount, long gcTimeMs) {
+        double aggregate() {
+            double agg = 0;
+            for (double r : rates) agg += r;
+            return agg;
+        }
+    }
+
+    // Écart entre les slots GET d'une sortie privée : 16 longs = 128 octets (deux lignes de cache).
+    private static final int PRIVATE_SLOT_STRIDE = 16;
+    // Rondes de chauffe au plus, et écart relatif de débit en dessous duquel le workload est stable.
+    private static final int MAX_WARMUP_ROUNDS = 20;
+    private static final double WARMUP_TOLERANCE = 0.05;
+
+    private static volatile long blackhole;
+
+    // Variantes applicables à des données quelconques (ELIAS_FANO exige une suite non décroissante).
+    private static final Set<CompressionType> DEFAULT_VARIANTS =
+            EnumSet.complementOf(EnumSet.of(CompressionType.ELIAS_FANO));
+
     public static void main(String[] args) throws Exception {
         Map<String, String> opts = parseArgs(args);
         int runs = parseInt(opts.getOrDefault("--runs", "7"), 7);
@@ -40,19 +133,27 @@ public final class BenchCLI {
         String csvOut = opts.get("--csv");
         String tableOut = opts.get("--table-out");
         Set<CompressionType> variants = parseVariants(opts.get("--variants"));
+        int getOps = parseInt(opts.getOrDefault("--get-ops", "0"), 0);
+        int threads = parseInt(opts.getOrDefault("--threads", "0"), 0);
+        double duration = parseDouble(opts.getOrDefault("--duration", "1"), 1.0);
+        int repeats = Math.max(1, parseInt(opts.getOrDefault("--repeats", "3"), 3));
+        boolean sharedOutput = opts.containsKey("--shared-output");
+        String scalingCsv = opts.get("--scaling-csv");
 
         int[] data = (file != null) ? loadIntArrayAuto(Path.of(file)) : generateData(n);
         System.out.println("Input length: " + data.length);
 
         List<Row> rows = new ArrayList<>();
         for (CompressionType type : variants) {
-            Row r = benchVariant(type, data, runs);
+            Row r = benchVariant(type, data, runs, getOps);
             rows.add(r);
         }
 
         // Légende pour clarifier les métriques affichées
         String legend = "Legend: base_words = n (taille originale), words = compressed 32-bit ints, "
-                + "ratio = words/base_words, k_eff(bits/val) = 32*words/base_words, IQR = Q3−Q1 (ms)";
+                + "ratio = words/base_words, k_eff(bits/val) = 32*words/base_words, IQR = Q3−Q1 (ms), "
+                + "alloc = octets alloués par appel (hors tableau de sortie), gc = collections pendant les runs"
+                + (getOps > 0 ? ", <pattern>_ns_op = get(i) moyen, p50/p99/p999 en ns par appel" : "");
         System.out.println(legend);
         printAsciiTable(rows, System.out);
         if (csvOut != null) writeCsv(rows, Path.of(csvOut));
@@ -60,6 +161,172 @@ public final class BenchCLI {
             pw.println(legend);
             printAsciiTable(rows, pw);
         }
+
+        if (threads > 0 && data.length > 0) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            if (threads > cores) {
+                System.err.println("Warning: --threads " + threads + " > " + cores
+                        + " available processors; points above " + cores + " threads measure time-slicing, not scaling");
+            }
+            Set<Output> outputs = sharedOutput ? EnumSet.allOf(Output.class) : EnumSet.of(Output.PRIVATE);
+            List<ScalingRow> scaling = new ArrayList<>();
+            for (CompressionType type : variants) {
+                scaling.addAll(benchScaling(type, data, threads, duration, repeats, outputs));
+            }
+            System.out.println("Scaling (" + cores + " cores, " + duration + " s per point, median of " + repeats
+                    + "): M values/s, efficiency = agg(t) / (t * agg(1))");
+            printScalingTable(scaling, System.out);
+            if (scalingCsv != null) writeScalingCsv(scaling, Path.of(scalingCsv));
+        }
+    }
+
+    private static List<ScalingRow> benchScaling(CompressionType type, int[] data, int maxThreads, double seconds,
+                                                 int repeats, Set<Output> outputs) throws InterruptedException {
+        IntCompressor c = CompressorFactory.create(type, null);
+        int[] shared = c.compress(data);
+        List<ScalingRow> rows = new ArrayList<>();
+        for (Output o : outputs) {
+            for (Workload w : Workload.values()) {
+                if (o == Output.SHARED && w == Workload.COMPRESS) continue; // sortie allouée par le codec
+                warmUp(c, shared, data, w, o, seconds);
+                double single = Double.NaN;
+                for (int t : threadCounts(maxThreads)) {
+                    Point p = medianPoint(c, shared, data, w, o, t, seconds, repeats);
+                    double agg = p.aggregate(), min = Double.MAX_VALUE, max = 0;
+                    for (double r : p.rates()) { min = Math.min(min, r); max = Math.max(max, r); }
+                    if (t == 1) single = agg;
+                    double allocPerValue = (p.allocBytes() < 0 || p.values() == 0) ? -1 : (double) p.allocBytes() / p.values();
+                    rows.add(new ScalingRow(type, w, t, agg, min, max, agg / (t * single), allocPerValue,
+                            p.gcCount(), p.gcTimeMs(), o));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Répète le workload sur 1 thread jusqu'à ce que deux rondes consécutives aient un
+     * débit à WARMUP_TOLERANCE près (au plus MAX_WARMUP_ROUNDS rondes) : le point à
+     * 1 thread, base de l'efficacité, est ainsi mesuré sur du code compilé.
+     */
+    private static void warmUp(IntCompressor c, int[] shared, int[] data, Workload w, Output o, double seconds)
+            throws InterruptedException {
+        double round = Math.max(0.01, seconds / 4), previous = Double.NaN;
+        for (int i = 0; i < MAX_WARMUP_ROUNDS; i++) {
+            double rate = runConcurrent(c, shared, data, w, o, 1, round).aggregate();
+            if (Math.abs(rate - previous) <= WARMUP_TOLERANCE * previous) return;
+            previous = rate;
+        }
+    }
+
+    /** repeats mesures du même point ; garde celle de débit agrégé médian. */
+    private static Point medianPoint(IntCompressor c, int[] shared, int[] data, Workload w, Output o, int threads,
+                                     double seconds, int repeats) throws InterruptedException {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < repeats; i++) points.add(runConcurrent(c, shared, data, w, o, threads, seconds));
+        points.sort(Comparator.comparingDouble(Point::aggregate));
+        return points.get(points.size() / 2);
+    }
+
+    /** 1, 2, 4, ... puis max. */
+    private static List<Integer> threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int t = 1; t < max; t <<= 1) counts.add(t);
+        counts.add(max);
+        return counts;
+    }
+
+    /** Lance threads threads pendant seconds secondes ; débit de chacun en M valeurs/s. */
+    private static Point runConcurrent(IntCompressor c, int[] shared, int[] data, Workload w, Output o, int threads,
+                                       double seconds) throws InterruptedException {
+        final double[] rates = new double[threads];
+        final long[] allocated = new long[threads];
+        final long[] processed = new long[threads];
+        final long[] sinks = new long[threads]; // combinés après join : pas de += concurrent sur un volatile
+        final long durationNanos = (long) (seconds * 1e9);
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final int stride = (o == Output.SHARED) ? 1 : PRIVATE_SLOT_STRIDE;
+        final long[] slots = new long[threads * stride]; // résultat de GET, slot id * stride
+        final int[] sharedDst = (o == Output.SHARED && w == Workload.DECOMPRESS) ? new int[data.length] : null;
+        Thread[] ts = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            ts[t] = new Thread(() -> {
+                int[] src = data.clone();
+                int[] dst = (sharedDst != null) ? sharedDst : new int[data.length];
+                int slot = id * stride;
+                int[] idx = Access.UNIFORM.indices(data.length, 1 << 14, new Random(id));
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long values = 0, sink = 0;
+                long a0 = AllocationMeter.threadAllocatedBytes();
+                long t0 = System.nanoTime(), end = t0 + durationNanos, now;
+                do {
+                    switch (w) {
+                        case COMPRESS: sink += c.compress(src).length; values += src.length; break;
+                        case DECOMPRESS: c.decompress(shared, dst); sink += dst[id % dst.length]; values += dst.length; break;
+                        default: for (int i : idx) slots[slot] += c.get(shared, i); values += idx.length;
+                    }
+                    now = System.nanoTime();
+                } while (now < end);
+                rates[id] = values / ((now - t0) / 1e9) / 1e6;
+                allocated[id] = (a0 < 0) ? -1 : AllocationMeter.threadAllocatedBytes() - a0;
+                processed[id] = values;
+                sinks[id] = sink + slots[slot];
+            }, "bench-" + w.name().toLowerCase(Locale.ROOT) + "-" + t);
+            ts[t].start();
+        }
+        ready.await();
+        AllocationMeter.Snapshot before = AllocationMeter.snapshot();
+        start.countDown();
+        for (Thread t : ts) t.join();
+        AllocationMeter.Snapshot gc = AllocationMeter.snapshot().minus(before);
+        long alloc = 0, values = 0, sink = 0;
+        for (int t = 0; t < threads; t++) {
+            alloc = (alloc < 0 || allocated[t] < 0) ? -1 : alloc + allocated[t];
+            values += processed[t];
+            sink += sinks[t];
+        }
+        blackhole += sink;
+        return new Point(rates, alloc, values, gc.gcCount(), gc.gcTimeMs());
+    }
+
+    private static List<String[]> scalingLines(List<ScalingRow> rows) {
+        List<String[]> lines = new ArrayList<>();
+        for (ScalingRow r : rows) {
+            lines.add(new String[]{
+                r.type().name(), r.workload().name(), Integer.toString(r.threads()),
+                fmt(r.aggMValuesPerSec()), fmt(r.aggMValuesPerSec() / r.threads()),
+                fmt(r.perThreadMin()), fmt(r.perThreadMax()), fmt(r.efficiency()),
+                fmt(r.allocBytesPerValue()), Long.toString(r.gcCount()), Long.toString(r.gcTimeMs()),
+                r.output().name().toLowerCase(Locale.ROOT)
+            });
+        }
+        return lines;
+    }
+
+    private static void printScalingTable(List<ScalingRow> rows, Appendable out) throws IOException {
+        List<String[]> lines = new ArrayList<>();
+        lines.add(new String[]{"Variant", "workload", "threads", "agg(Mval/s)", "per_thread", "thread_min", "thread_max", "efficiency",
+                "alloc(B/val)", "gc_count", "gc_ms", "output"});
+        lines.addAll(scalingLines(rows));
+        printLines(lines, out);
+    }
+
+    private static void writeScalingCsv(List<ScalingRow> rows, Path out) throws IOException {
+        try (BufferedWriter w = Files.newBufferedWriter(out)) {
+            w.write("variant,workload,threads,agg_mvalues_per_s,per_thread_mvalues_per_s,thread_min_mvalues_per_s,thread_max_mvalues_per_s,efficiency,"
+                    + "alloc_bytes_per_value,gc_count,gc_time_ms,output\n");
+            for (String[] line : scalingLines(rows)) {
+                w.write(String.join(",", line));
+                w.write("\n");
+            }
+        }
     }
 
     private static final class Row {
@@ -68,12 +335,14 @@ public final class BenchCLI {
         final int words;     // taille compressée (en mots int32)
         final Stats comp;    // stats temps de compression (ms)
         final Stats decomp;  // stats temps de décompression (ms)
-        Row(CompressionType t, int baseWords, int words, Stats c, Stats d){
-            this.type=t; this.baseWords=baseWords; this.words=words; this.comp=c; this.decomp=d;
+        final Alloc alloc;   // allocations et GC
+        final GetStats[] gets; // par motif d'accès (null sans --get-ops)
+        Row(CompressionType t, int baseWords, int words, Stats c, Stats d, Alloc alloc, GetStats[] gets){
+            this.type=t; this.baseWords=baseWords; this.words=words; this.comp=c; this.decomp=d; this.alloc=alloc; this.gets=gets;
         }
     }
 
-    private static Row benchVariant(CompressionType type, int[] data, int runs) {
+    private static Row benchVariant(CompressionType type, int[] data, int runs, int getOps) {
         CompressorFactory.Options opts = new CompressorFactory.Options();
         IntCompressor c = CompressorFactory.create(type, opts);
 
@@ -87,15 +356,21 @@ public final class BenchCLI {
         List<Double> compMs = new ArrayList<>();
         List<Double> decompMs = new ArrayList<>();
     int words = -1;
+        long compAlloc = 0, decompAlloc = 0;
+        AllocationMeter.Snapshot before = AllocationMeter.snapshot();
         for (int i = 0; i < runs; i++) {
+            long a0 = AllocationMeter.threadAllocatedBytes();
             long t0 = System.nanoTime();
             int[] comp = c.compress(data);
             long t1 = System.nanoTime();
+            compAlloc += AllocationMeter.threadAllocatedBytes() - a0;
             if (words < 0) words = comp.length;
-            long t2 = System.nanoTime();
             int[] out = new int[data.length];
+            long a2 = AllocationMeter.threadAllocatedBytes(); // hors tableau de sortie
+            long t2 = System.nanoTime(); // lectures du compteur d'allocations hors fenêtre
             c.decompress(comp, out);
             long t3 = System.nanoTime();
+            decompAlloc += AllocationMeter.threadAllocatedBytes() - a2;
             // quick check on first iteration
             if (i == 0 && !Arrays.equals(data, out)) {
                 throw new IllegalStateException("Roundtrip failed for variant " + type);
@@ -103,7 +378,64 @@ public final class BenchCLI {
             compMs.add((t1 - t0) / 1e6);
             decompMs.add((t3 - t2) / 1e6);
         }
-        return new Row(type, data.length, words, summarize(compMs), summarize(decompMs));
+        AllocationMeter.Snapshot gc = AllocationMeter.snapshot().minus(before);
+        boolean measured = gc.allocatedBytes() >= 0 && runs > 0;
+        Alloc alloc = new Alloc(measured ? compAlloc / runs : -1, measured ? decompAlloc / runs : -1, gc.gcCount(), gc.gcTimeMs());
+        GetStats[] gets = (getOps > 0 && data.length > 0) ? benchGets(c, c.compress(data), data, getOps) : null;
+        return new Row(type, data.length, words, summarize(compMs), summarize(decompMs), alloc, gets);
+    }
+
+    private static GetStats[] benchGets(IntCompressor c, int[] comp, int[] data, int ops) {
+        GetStats[] out = new GetStats[Access.values().length];
+        for (Access a : Access.values()) {
+            int[] idx = a.indices(data.length, ops, new Random(7));
+            long sink = 0;
+            for (int i : idx) { // warmup + vérification
+                int v = c.get(comp, i);
+                if (v != data[i]) throw new IllegalStateException("get(" + i + ") failed for variant " + c);
+                sink += v;
+            }
+            double nsPerOp = Double.MAX_VALUE;
+            for (int pass = 0; pass < 3; pass++) { // meilleure de 3 passes (JIT, bruit)
+                long t0 = System.nanoTime();
+                for (int i : idx) sink += c.get(comp, i);
+                nsPerOp = Math.min(nsPerOp, (double) (System.nanoTime() - t0) / idx.length);
+            }
+            LatencyHistogram h = new LatencyHistogram();
+            for (int i : idx) {
+                long s = System.nanoTime();
+                sink += c.get(comp, i);
+                h.record(System.nanoTime() - s);
+            }
+            blackhole += sink;
+            out[a.ordinal()] = new GetStats(nsPerOp, h.percentile(50), h.percentile(99), h.percentile(99.9));
+        }
+        return out;
+    }
+
+    /** Colonnes du mode get (vides sans --get-ops). */
+    private static List<String> getHeaders(List<Row> rows) {
+        List<String> h = new ArrayList<>();
+        if (rows.isEmpty() || rows.get(0).gets == null) return h;
+        for (Access a : Access.values()) {
+            h.add(a.prefix + "_ns_op");
+            h.add(a.prefix + "_p50_ns");
+            h.add(a.prefix + "_p99_ns");
+            h.add(a.prefix + "_p999_ns");
+        }
+        return h;
+    }
+
+    private static List<String> getValues(Row r, int columns) {
+        List<String> v = new ArrayList<>();
+        for (int i = 0; i < columns / 4; i++) {
+            GetStats g = (r.gets == null) ? null : r.gets[i];
+            v.add(g == null ? "" : fmt(g.nsPerOp()));
+            v.add(g == null ? "" : Long.toString(g.p50Ns()));
+            v.add(g == null ? "" : Long.toString(g.p99Ns()));
+            v.add(g == null ? "" : Long.toString(g.p999Ns()));
+        }
+        return v;
     }
 
     private static Stats summarize(List<Double> values) {
@@ -125,23 +457,33 @@ public final class BenchCLI {
     }
 
     private static void printAsciiTable(List<Row> rows, Appendable out) throws IOException {
-        String[] headers = {"Variant", "base_words", "words", "ratio", "k_eff(bits/val)", "comp_med(ms)", "comp_IQR", "decomp_med(ms)", "decomp_IQR"};
+        List<String> extra = getHeaders(rows);
+        List<String> base = List.of("Variant", "base_words", "words", "ratio", "k_eff(bits/val)", "comp_med(ms)", "comp_IQR", "decomp_med(ms)", "decomp_IQR",
+                "comp_alloc(B/op)", "decomp_alloc(B/op)", "gc_count", "gc_ms");
+        String[] headers = concat(base, extra);
         List<String[]> lines = new ArrayList<>();
         lines.add(headers);
         for (Row r : rows) {
             double ratio = (r.baseWords == 0) ? Double.NaN : ((double) r.words) / r.baseWords;
             double kEff = (r.baseWords == 0) ? Double.NaN : 32.0 * r.words / r.baseWords;
-            lines.add(new String[]{
+            lines.add(concat(List.of(
                 r.type.name(),
                 String.valueOf(r.baseWords),
                 String.valueOf(r.words),
                 fmt(ratio),
                 fmt(kEff),
                 fmt(r.comp.medianMs()), fmt(r.comp.iqrMs()),
-                fmt(r.decomp.medianMs()), fmt(r.decomp.iqrMs())
-            });
+                fmt(r.decomp.medianMs()), fmt(r.decomp.iqrMs()),
+                Long.toString(r.alloc.compBytesPerOp()), Long.toString(r.alloc.decompBytesPerOp()),
+                Long.toString(r.alloc.gcCount()), Long.toString(r.alloc.gcTimeMs())
+            ), getValues(r, extra.size())));
         }
-        int[] w = new int[headers.length];
+        printLines(lines, out);
+    }
+
+    // Rend des lignes (la première = en-têtes) en tableau ASCII aligné.
+    private static void printLines(List<String[]> lines, Appendable out) throws IOException {
+        int[] w = new int[lines.get(0).length];
         for (String[] row : lines) for (int i = 0; i < row.length; i++) w[i] = Math.max(w[i], row[i].length());
         String sep = sep(w);
         out.append(sep);
@@ -157,6 +499,12 @@ public final class BenchCLI {
         out.append(sep);
     }
 
+    private static String[] concat(List<String> a, List<String> b) {
+        List<String> all = new ArrayList<>(a);
+        all.addAll(b);
+        return all.toArray(new String[0]);
+    }
+
     private static String fmt(double v) { return String.format(Locale.ROOT, "%.3f", v); }
     private static String pad(String s, int w) { return String.format(Locale.ROOT, "%-"+w+"s", s); }
     private static String sep(int[] w) {
@@ -169,7 +517,11 @@ public final class BenchCLI {
 
     private static void writeCsv(List<Row> rows, Path out) throws IOException {
         try (BufferedWriter w = Files.newBufferedWriter(out)) {
-            w.write("variant,base_words,words,ratio,k_eff_bits_per_val,comp_median_ms,comp_iqr_ms,decomp_median_ms,decomp_iqr_ms\n");
+            List<String> extra = getHeaders(rows);
+            w.write("variant,base_words,words,ratio,k_eff_bits_per_val,comp_median_ms,comp_iqr_ms,decomp_median_ms,decomp_iqr_ms,"
+                    + "comp_alloc_bytes_per_op,decomp_alloc_bytes_per_op,gc_count,gc_time_ms");
+            for (String h : extra) w.write("," + h);
+            w.write("\n");
             for (Row r : rows) {
                 double ratio = (r.baseWords == 0) ? Double.NaN : ((double) r.words) / r.baseWords;
                 double kEff = (r.baseWords == 0) ? Double.NaN : 32.0 * r.words / r.baseWords;
@@ -182,7 +534,12 @@ public final class BenchCLI {
                         fmt(r.comp.medianMs()),
                         fmt(r.comp.iqrMs()),
                         fmt(r.decomp.medianMs()),
-                        fmt(r.decomp.iqrMs())));
+                        fmt(r.decomp.iqrMs()),
+                        Long.toString(r.alloc.compBytesPerOp()),
+                        Long.toString(r.alloc.decompBytesPerOp()),
+                        Long.toString(r.alloc.gcCount()),
+                        Long.toString(r.alloc.gcTimeMs())));
+                for (String v : getValues(r, extra.size())) w.write("," + v);
                 w.write("\n");
             }
         }
@@ -237,13 +594,17 @@ public final class BenchCLI {
         try { return Integer.parseInt(s); } catch (Exception e) { return def; }
     }
 
+    private static double parseDouble(String s, double def) {
+        try { return Double.parseDouble(s); } catch (Exception e) { return def; }
+    }
+
     private static Set<CompressionType> parseVariants(String s) {
-        if (s == null || s.isBlank()) return EnumSet.allOf(CompressionType.class);
+        if (s == null || s.isBlank()) return EnumSet.copyOf(DEFAULT_VARIANTS);
         Set<CompressionType> set = EnumSet.noneOf(CompressionType.class);
         for (String t : s.split(",")) {
             t = t.trim();
             if (!t.isEmpty()) set.add(CompressionType.valueOf(t));
         }
-        return set.isEmpty() ? EnumSet.allOf(CompressionType.class) : set;
+        return set.isEmpty() ? EnumSet.copyOf(DEFAULT_VARIANTS) : set;
     }
 }
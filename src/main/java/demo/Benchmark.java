@@ -39,26 +39,36 @@ public class Benchmark {
             c.decompress(comp, out);
         }
 
+        AllocationMeter.Snapshot before = AllocationMeter.snapshot();
+
         // measure compress
+        long a0 = AllocationMeter.threadAllocatedBytes();
         long t0 = System.nanoTime();
         int[] comp = c.compress(data);
         long t1 = System.nanoTime();
         long compressNs = t1 - t0;
+        long compressBytes = AllocationMeter.threadAllocatedBytes() - a0;
 
         // measure decompress
         int[] out = new int[data.length];
+        long a2 = AllocationMeter.threadAllocatedBytes();
         long t2 = System.nanoTime();
         c.decompress(comp, out);
         long t3 = System.nanoTime();
         long decompressNs = t3 - t2;
+        long decompressBytes = AllocationMeter.threadAllocatedBytes() - a2;
+        AllocationMeter.Snapshot gc = AllocationMeter.snapshot().minus(before);
+        if (gc.allocatedBytes() < 0) compressBytes = decompressBytes = -1;
 
     int baseWords = data.length;
     double ratio = (double) comp.length / baseWords;
     double kEff = 32.0 * comp.length / baseWords;
     System.out.printf(
         Locale.ROOT,
-        "base_words=%d, compressed words=%d, ratio=%.3f, k_eff(bits/val)=%.3f, compress=%.3f ms, decompress=%.3f ms\n",
-        baseWords, comp.length, ratio, kEff, compressNs / 1e6, decompressNs / 1e6);
+        "base_words=%d, compressed words=%d, ratio=%.3f, k_eff(bits/val)=%.3f, compress=%.3f ms, decompress=%.3f ms, "
+            + "alloc compress=%d B, alloc decompress=%d B, gc=%d (%d ms)\n",
+        baseWords, comp.length, ratio, kEff, compressNs / 1e6, decompressNs / 1e6,
+        compressBytes, decompressBytes, gc.gcCount(), gc.gcTimeMs());
 
         // quick verification
         boolean ok = java.util.Arrays.equals(data, out);
@@ -0,0 +1,371 @@
+package demo;
+
+import io.compress.intpack.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Démon de compression : une JVM qui reste chaude (code compilé par le JIT,
+ * compresseurs et derniers fichiers compressés en mémoire) et répond à des requêtes
+ * texte, une par ligne, sur une socket Unix (défaut) ou, sur demande explicite, un
+ * port loopback.
+ *
+ * Usage :
+ *   java -cp target/classes demo.CodecServer [--unix /tmp/intpack.sock | --port 7070] [--root data]
+ *   printf 'GET comp.bin 42\n' | nc -U /tmp/intpack.sock
+ *   printf 'PACK CROSSING 1 2 3\n' | nc 127.0.0.1 7070
+ *
+ * Commandes (réponse sur une ligne : "OK ..." ou "ERR message") :
+ *   COMPRESS <type> <in-file> <out-file>  fichier .bin ou texte -> fichier DataIO compressé
+ *   DECOMPRESS <in-file> <out-file>       fichier compressé -> tableau binaire DataIO
+ *   GET <comp-file> <index>               valeur i d'un fichier compressé (fichier gardé en cache)
+ *   PACK <type> v0 v1 ...                 valeurs -> words compressés
+ *   UNPACK w0 w1 ...                      words compressés -> valeurs
+ *   PEEK <index> w0 w1 ...                valeur i d'un buffer en ligne
+ *   PING | STATS | QUIT (ferme la connexion) | SHUTDOWN (arrête le démon)
+ *
+ * Chaque connexion est servie par un thread virtuel. Le protocole n'est pas
+ * authentifié, d'où les garde-fous :
+ *   - la socket Unix est créée en 0600 (seul le propriétaire du démon s'y connecte) ;
+ *     le port TCP, joignable par tout utilisateur local, exige --port ;
+ *   - les chemins des commandes fichier sont résolus sous --root (défaut : répertoire
+ *     courant) et refusés s'ils en sortent, liens symboliques compris ;
+ *   - une ligne qui ressemble à du HTTP (ligne de requête "... HTTP/1.1" ou en-tête
+ *     "Host: ...") ferme la connexion : une page web ne peut pas piloter le démon
+ *     par un POST text/plain ;
+ *   - une ligne de plus de MAX_LINE caractères ferme la connexion ;
+ *   - la taille d'origine d'un fichier compressé doit égaler le n de son en-tête.
+ */
+public final class CodecServer implements AutoCloseable {
+    static final Path DEFAULT_SOCKET = Path.of(System.getProperty("java.io.tmpdir"), "intpack.sock");
+    static final int FILE_CACHE_ENTRIES = 64;
+    /** Longueur maximale d'une ligne de requête (caractères). */
+    static final int MAX_LINE = 1 << 20;
+    /** Nombre maximal de valeurs rendues par UNPACK (la réponse tient sur une ligne). */
+    static final int MAX_INLINE_VALUES = 1 << 18;
+
+    private record CachedFile(long modified, long length, DataIO.Compressed data) {}
+
+    private final ServerSocketChannel server;
+    private final Path unixPath;
+    private final Path root;
+    private final Set<SocketChannel> clients = ConcurrentHashMap.newKeySet();
+    private final Map<CompressionType, IntCompressor> codecs = new EnumMap<>(CompressionType.class);
+    private final Map<Path, CachedFile> files = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, CachedFile> e) { return size() > FILE_CACHE_ENTRIES; }
+    };
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    private CodecServer(ServerSocketChannel server, Path unixPath, Path root) throws IOException {
+        this.server = server;
+        this.unixPath = unixPath;
+        this.root = root.toRealPath();
+        for (CompressionType t : CompressionType.values()) codecs.put(t, CompressorFactory.create(t, null));
+    }
+
+    /**
+     * Écoute sur 127.0.0.1:port (0 = port libre choisi par le système). Tout utilisateur
+     * local peut s'y connecter : préférer {@link #unix(Path, Path)}.
+     */
+    public static CodecServer tcp(int port, Path root) throws IOException {
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        try {
+            ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            return new CodecServer(ch, null, root);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Écoute sur une socket Unix en 0600 (le fichier est remplacé s'il existe). Sur un
+     * système POSIX, la socket est liée dans un répertoire temporaire 0700 puis déplacée
+     * à sa place : elle n'est jamais visible avec des droits plus larges.
+     */
+    public static CodecServer unix(Path path, Path root) throws IOException {
+        Files.deleteIfExists(path);
+        ServerSocketChannel ch = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Path parent = path.toAbsolutePath().getParent();
+                Path dir = Files.createTempDirectory(parent, ".intpack",
+                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                try {
+                    Path tmp = dir.resolve("s");
+                    ch.bind(UnixDomainSocketAddress.of(tmp));
+                    Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+                    Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(dir.resolve("s"));
+                    Files.delete(dir);
+                }
+            } else {
+                ch.bind(UnixDomainSocketAddress.of(path));
+            }
+            return new CodecServer(ch, path, root);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path socket = DEFAULT_SOCKET, root = Path.of(".");
+        int port = -1;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i]) && i + 1 < args.length) port = Integer.parseInt(args[++i]);
+            else if ("--unix".equals(args[i]) && i + 1 < args.length) socket = Path.of(args[++i]);
+            else if ("--root".equals(args[i]) && i + 1 < args.length) root = Path.of(args[++i]);
+        }
+        try (CodecServer server = (port >= 0) ? tcp(port, root) : unix(socket, root)) {
+            server.start();
+            System.out.println("CodecServer listening on " + server.address() + ", root " + server.root);
+            server.awaitShutdown();
+        }
+    }
+
+    public SocketAddress address() throws IOException { return server.getLocalAddress(); }
+
+    /** Lance la boucle d'acceptation dans un thread dédié et rend la main. */
+    public CodecServer start() {
+        Thread acceptor = new Thread(this::acceptLoop, "codec-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return this;
+    }
+
+    public void awaitShutdown() throws InterruptedException { stopped.await(); }
+
+    private void acceptLoop() {
+        try {
+            while (server.isOpen()) {
+                SocketChannel client = server.accept();
+                clients.add(client);
+                if (!server.isOpen()) { // close() a pu passer entre accept et add
+                    clients.remove(client);
+                    client.close();
+                    break;
+                }
+                connections.submit(() -> serve(client));
+            }
+        } catch (IOException e) {
+            // canal fermé par close() / SHUTDOWN
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(client), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(client), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = readLine(in)) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (looksLikeHttp(line)) break;
+                String cmd = line.split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+                if (cmd.equals("QUIT")) break;
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+                if (cmd.equals("SHUTDOWN")) {
+                    close();
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // client parti, ligne trop longue ou close() : rien à faire
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    // BufferedReader.readLine sans borne : un client pourrait envoyer une ligne sans fin.
+    private static String readLine(BufferedReader in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int ch;
+        while ((ch = in.read()) != -1) {
+            if (ch == '\n') return sb.toString();
+            if (sb.length() == MAX_LINE) throw new IOException("ligne trop longue");
+            sb.append((char) ch);
+        }
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    /** Ligne de requête HTTP ("POST / HTTP/1.1") ou en-tête ("Host: ..."). */
+    static boolean looksLikeHttp(String line) {
+        String[] a = line.split("\\s+");
+        return a[a.length - 1].startsWith("HTTP/") || a[0].startsWith("HTTP/") || a[0].endsWith(":");
+    }
+
+    /** Traite une requête et renvoie la ligne de réponse (sans fin de ligne). */
+    String handle(String line) {
+        requests.increment();
+        String[] a = line.trim().split("\\s+");
+        try {
+            switch (a[0].toUpperCase(Locale.ROOT)) {
+                case "PING":
+                    return "OK pong";
+                case "STATS":
+                    return String.format(Locale.ROOT, "OK requests=%d errors=%d uptime_s=%.1f cached_files=%d",
+                            requests.sum(), errors.sum(), (System.nanoTime() - startNanos) / 1e9, cachedFiles());
+                case "SHUTDOWN":
+                    return "OK bye";
+                case "COMPRESS": {
+                    need(a, 4);
+                    CompressionType type = CompressionType.valueOf(a[1].toUpperCase(Locale.ROOT));
+                    int[] data = BatchCompress.loadInts(resolve(a[2]).toFile());
+                    int[] comp = codecs.get(type).compress(data);
+                    DataIO.saveCompressed(resolve(a[3]).toFile(), type, data.length, comp);
+                    return "OK values=" + data.length + " words=" + comp.length;
+                }
+                case "DECOMPRESS": {
+                    need(a, 3);
+                    DataIO.Compressed c = loadCompressed(resolve(a[1]));
+                    int[] values = new int[c.origLength]; // = n de l'en-tête, vérifié au chargement
+                    codecs.get(CompressionType.values()[c.compressorOrdinal]).decompress(c.data, values);
+                    DataIO.saveIntArray(resolve(a[2]).toFile(), values);
+                    return "OK values=" + values.length;
+                }
+                case "GET": {
+                    need(a, 3);
+                    DataIO.Compressed c = loadCompressed(resolve(a[1]));
+                    int v = codecs.get(CompressionType.values()[c.compressorOrdinal]).get(c.data, Integer.parseInt(a[2]));
+                    return "OK " + v;
+                }
+                case "PACK": {
+                    need(a, 2);
+                    CompressionType type = CompressionType.valueOf(a[1].toUpperCase(Locale.ROOT));
+                    return "OK " + join(codecs.get(type).compress(ints(a, 2)));
+                }
+                case "UNPACK": {
+                    int[] comp = ints(a, 1);
+                    int n = CompressorFactory.sizeOf(comp);
+                    if (n < 0 || n > MAX_INLINE_VALUES)
+                        throw new IllegalArgumentException("UNPACK limité à " + MAX_INLINE_VALUES + " valeurs: " + n);
+                    int[] values = new int[n];
+                    codecs.get(CompressorFactory.typeOf(comp)).decompress(comp, values);
+                    return "OK " + join(values);
+                }
+                case "PEEK": {
+                    need(a, 3);
+                    int[] comp = ints(a, 2);
+                    return "OK " + codecs.get(CompressorFactory.typeOf(comp)).get(comp, Integer.parseInt(a[1]));
+                }
+                default:
+                    throw new IllegalArgumentException("commande inconnue: " + a[0]);
+            }
+        } catch (Exception e) {
+            errors.increment();
+            String msg = (e.getMessage() == null) ? e.getClass().getSimpleName() : e.getMessage();
+            return "ERR " + msg.replace('\n', ' ');
+        }
+    }
+
+    /**
+     * Chemin d'argument résolu sous root ; refusé s'il en sort, directement ("..",
+     * chemin absolu) ou par un lien symbolique (le fichier, ou son parent s'il n'existe pas encore).
+     */
+    Path resolve(String arg) throws IOException {
+        Path p = root.resolve(arg).normalize();
+        Path parent = p.getParent();
+        Path real = Files.exists(p) ? p.toRealPath()
+                : (parent == null || !Files.exists(parent)) ? p : parent.toRealPath().resolve(p.getFileName());
+        if (!p.startsWith(root) || !real.startsWith(root))
+            throw new IllegalArgumentException("chemin hors de la racine: " + arg);
+        return real;
+    }
+
+    // Fichier compressé, relu seulement s'il a changé depuis sa mise en cache.
+    private DataIO.Compressed loadCompressed(Path key) throws IOException {
+        long modified = Files.getLastModifiedTime(key).toMillis();
+        long length = Files.size(key);
+        synchronized (files) {
+            CachedFile f = files.get(key);
+            if (f != null && f.modified() == modified && f.length() == length) return f.data();
+        }
+        DataIO.Compressed c = DataIO.loadCompressed(key.toFile());
+        // origLength vient du fichier : sans ce contrôle, DECOMPRESS allouerait ce qu'il annonce
+        if (c.compressorOrdinal < 0 || c.compressorOrdinal >= CompressionType.values().length
+                || c.data.length == 0 || c.origLength != CompressorFactory.sizeOf(c.data))
+            throw new IllegalStateException("fichier compressé incohérent: " + key.getFileName());
+        synchronized (files) {
+            files.put(key, new CachedFile(modified, length, c));
+        }
+        return c;
+    }
+
+    private int cachedFiles() {
+        synchronized (files) { return files.size(); }
+    }
+
+    private static void need(String[] a, int count) {
+        if (a.length < count) throw new IllegalArgumentException("arguments manquants pour " + a[0]);
+    }
+
+    private static int[] ints(String[] a, int from) {
+        int[] out = new int[a.length - from];
+        for (int i = from; i < a.length; i++) out[i - from] = Integer.parseInt(a[i]);
+        return out;
+    }
+
+    private static String join(int[] values) {
+        StringBuilder sb = new StringBuilder(values.length * 6);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close();
+            for (SocketChannel c : clients) {
+                try {
+                    c.close();
+                } catch (IOException e) {
+                    // déjà fermée
+                }
+            }
+        } finally {
+            connections.shutdown();
+            if (unixPath != null) Files.deleteIfExists(unixPath);
+        }
+    }
+}
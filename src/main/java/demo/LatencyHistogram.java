@@ -0,0 +1,47 @@
+package demo;
+
+/**
+ * Histogramme de latences façon HdrHistogram, en mémoire fixe (~30 Ko) :
+ * valeurs < 128 ns exactes, puis 64 sous-intervalles par puissance de 2, soit une
+ * erreur relative < 1,6 % sur toute la plage d'un long. record() est O(1) et sans
+ * allocation, ce qui permet de chronométrer chaque opération d'une boucle serrée.
+ */
+final class LatencyHistogram {
+    private static final int SUB = 64;
+    private static final int LINEAR = 2 * SUB;
+    private final long[] counts = new long[64 * SUB];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[index(nanos)]++;
+        total++;
+        if (nanos > max) max = nanos;
+    }
+
+    /** Plus grande valeur équivalente au percentile p (0..100), 0 si vide. */
+    long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestEquivalent(i));
+        }
+        return max;
+    }
+
+    private static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 6;
+        return shift * SUB + (int) (v >>> shift);
+    }
+
+    private static long highestEquivalent(int idx) {
+        if (idx < LINEAR) return idx;
+        int shift = idx / SUB - 1;
+        long sub = idx % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+}
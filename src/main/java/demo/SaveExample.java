@@ -10,11 +10,14 @@ import java.io.File;
  *  java -cp target/classes demo.SaveExample compress <in-file> <out-file> [CROSSING|NO_CROSSING|OVERFLOW]
  *  java -cp target/classes demo.SaveExample decompress <in-file> <out-file>
  *  java -cp target/classes demo.SaveExample roundtrip <in-file> <out-dir> [CROSSING|...]
+ *  java -cp target/classes demo.SaveExample batch <in-dir> <out-dir> [CROSSING|...] [--threads N] [--in-flight M]
+ *
+ * batch : compresse tous les fichiers de l'arborescence dans la même JVM (voir BatchCompress).
  */
 public class SaveExample {
     public static void main(String[] args) throws Exception {
         if (args.length < 3) {
-            System.out.println("Usage: compress|decompress|roundtrip ...");
+            System.out.println("Usage: compress|decompress|roundtrip|batch ...");
             return;
         }
 
@@ -63,15 +66,24 @@ public class SaveExample {
             c2.decompress(read.data, outArr);
             System.out.println("roundtrip ok=" + java.util.Arrays.equals(data, outArr));
 
+        } else if ("batch".equalsIgnoreCase(cmd)) {
+            CompressionType type = CompressionType.NO_CROSSING;
+            int threads = 0, inFlight = 0;
+            for (int i = 3; i < args.length; i++) {
+                if ("--threads".equals(args[i]) && i + 1 < args.length) threads = Integer.parseInt(args[++i]);
+                else if ("--in-flight".equals(args[i]) && i + 1 < args.length) inFlight = Integer.parseInt(args[++i]);
+                else type = CompressionType.valueOf(args[i]);
+            }
+            BatchCompress.Summary s = BatchCompress.run(new File(args[1]).toPath(), new File(args[2]).toPath(),
+                    type, threads, inFlight);
+            System.out.println("Batch " + type + ": " + s);
+
         } else {
             System.out.println("Unknown command: " + cmd);
         }
     }
 
     private static int[] loadIntsFlexible(File f) throws Exception {
-        String name = f.getName().toLowerCase();
-        if (name.endsWith(".bin")) return DataIO.loadIntArray(f);
-        // otherwise treat as text file with one integer per line
-        return DataIO.loadIntArrayFromText(f);
+        return BatchCompress.loadInts(f);
     }
 }
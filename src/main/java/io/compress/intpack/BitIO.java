@@ -5,6 +5,7 @@ import java.util.Objects;
 /**
  * Utilitaires bas niveau de bit I/O pour des buffers int[].
  * Convention: LSB-first à l'intérieur de chaque word 32 bits (bit 0 = LSB du word 0).
+ * Les positions de bits sont des long : un int[] peut dépasser 2^31 bits (2^36 au plus).
  *
  * Rappel vocabulaire (conservé en anglais):
  * - word: entier 32 bits du tableau
@@ -22,11 +23,11 @@ final class BitIO {
      * Lecture (LSB-first) d'au plus 32 bits à partir de bitPos (0 = LSB du word 0).
      * Peut chevaucher 2 words consécutifs si (offset+bitLen) > 32.
      */
-    static int readBitsLSB(int[] words, int bitPos, int bitLen) {
+    static int readBitsLSB(int[] words, long bitPos, int bitLen) {
         Objects.requireNonNull(words);
         if (bitLen == 0) return 0;
-        int w = bitPos >>> 5; // /32
-        int o = bitPos & 31; // %32
+        int w = (int) (bitPos >>> 5); // /32
+        int o = (int) bitPos & 31; // %32
         int v = words[w] >>> o;
         int left = o + bitLen;
         if (left > 32) {
@@ -36,14 +37,24 @@ final class BitIO {
         return (bitLen == 32) ? v : (v & mask(bitLen));
     }
 
+    /** Même lecture sur un buffer sérialisé (ByteBuffer little-endian). */
+    static int readBitsLSB(BufferWords words, long bitPos, int bitLen) {
+        if (bitLen == 0) return 0;
+        int w = (int) (bitPos >>> 5);
+        int o = (int) bitPos & 31;
+        int v = words.word(w) >>> o;
+        if (o + bitLen > 32) v |= (words.word(w + 1) << (32 - o));
+        return (bitLen == 32) ? v : (v & mask(bitLen));
+    }
+
     /**
      * Écriture (LSB-first) d'au plus 32 bits à partir de bitPos (0 = LSB du word 0).
      * Peut écrire sur 2 words si nécessaire.
      */
-    static void writeBitsLSB(int[] words, int bitPos, int bitLen, int value) {
+    static void writeBitsLSB(int[] words, long bitPos, int bitLen, int value) {
         if (bitLen == 0) return;
-        int w = bitPos >>> 5;
-        int o = bitPos & 31;
+        int w = (int) (bitPos >>> 5);
+        int o = (int) bitPos & 31;
         int m = mask(bitLen);
         int v = value & m;
         // Écrit la partie basse dans words[w]
@@ -57,6 +68,15 @@ final class BitIO {
         }
     }
 
+    /**
+     * Copie len bits de src (à partir de srcBit) vers dst (à partir de dstBit),
+     * 32 bits par itération : chaque pas fusionne au plus 2 words source décalés.
+     */
+    static void copyBits(int[] src, long srcBit, int[] dst, long dstBit, long len) {
+        for (; len >= 32; len -= 32, srcBit += 32, dstBit += 32) writeBitsLSB(dst, dstBit, 32, readBitsLSB(src, srcBit, 32));
+        if (len > 0) writeBitsLSB(dst, dstBit, (int) len, readBitsLSB(src, srcBit, (int) len));
+    }
+
     // Helpers pour NO_CROSSING: opérations confinées à un seul word.
     static int readBitsInWordLSB(int word, int offset, int bitLen) {
         int m = mask(bitLen);
@@ -70,21 +90,21 @@ final class BitIO {
     }
 
     // Optionnel: helpers orientés MSB via conversion de coordonnées
-    static int readBitsMSB(int[] words, int bitPos, int bitLen) {
+    static int readBitsMSB(int[] words, long bitPos, int bitLen) {
         if (bitLen == 0) return 0;
-        int w = bitPos >>> 5;
-        int oMSB = bitPos & 31;
+        long w = bitPos >>> 5;
+        int oMSB = (int) bitPos & 31;
         int oLSB = 31 - oMSB - (bitLen - 1);
-        int abs = (w << 5) + oLSB;
+        long abs = (w << 5) + oLSB;
         return readBitsLSB(words, abs, bitLen);
     }
 
-    static void writeBitsMSB(int[] words, int bitPos, int bitLen, int value) {
+    static void writeBitsMSB(int[] words, long bitPos, int bitLen, int value) {
         if (bitLen == 0) return;
-        int w = bitPos >>> 5;
-        int oMSB = bitPos & 31;
+        long w = bitPos >>> 5;
+        int oMSB = (int) bitPos & 31;
         int oLSB = 31 - oMSB - (bitLen - 1);
-        int abs = (w << 5) + oLSB;
+        long abs = (w << 5) + oLSB;
         writeBitsLSB(words, abs, bitLen, value);
     }
 }
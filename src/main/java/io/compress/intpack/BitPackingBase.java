@@ -41,17 +41,45 @@ return k;
 
 /**
  * Alloue un buffer int[] de taille suffisante pour 'headerWords' + data en bits.
+ * Échoue proprement si le résultat dépasse la taille maximale d'un tableau Java.
  */
-protected static int[] allocWithHeader(int headerWords, int dataBits) {
-int words = headerWords + ((dataBits + 31) >>> 5);
-return new int[words];
+protected static int[] allocWithHeader(int headerWords, long dataBits) {
+return new int[checkedWords(headerWords + ((dataBits + 31) >>> 5))];
 }
 
 
+/** Taille d'un buffer en words, vérifiée contre la limite des tableaux Java. */
+static int checkedWords(long words) {
+if (words > MAX_ARRAY_WORDS) throw new IllegalArgumentException("buffer compressé trop grand: " + words + " words");
+return (int) words;
+}
+
+
+/** Taille maximale sûre d'un int[] (marge de la JVM pour l'en-tête d'objet). */
+static final int MAX_ARRAY_WORDS = Integer.MAX_VALUE - 8;
+
+
 /**
  * Nombre d'éléments par word en mode NO_CROSSING (pas de chevauchement intra-word).
  */
 protected static int perWordNoCrossing(int k) {
 return Math.max(1, 32 / Math.max(1, k));
 }
+
+
+/**
+ * Dernière étape de compress : passe au header compact si Options.compactHeader.
+ */
+protected int[] finish(int[] out) {
+return opts.compactHeader ? Headers.toCompact(out) : out;
+}
+
+
+/**
+ * Vérifie une plage [from, from+len) sur n valeurs et sa destination dst[off..off+len).
+ */
+static void checkRange(int n, int from, int[] dst, int off, int len) {
+if (from < 0 || len < 0 || from > n - len) throw new IndexOutOfBoundsException();
+if (off < 0 || off > dst.length - len) throw new IllegalArgumentException("dst trop petit");
+}
 }
@@ -1,5 +1,7 @@
 package io.compress.intpack;
 
+import java.nio.ByteBuffer;
+
 
 /**
  * Variante CROSSING : les valeurs peuvent chevaucher deux words.
@@ -14,33 +16,50 @@ BitPackingCrossing(CompressorFactory.Options opts) { super(opts); }
 
 @Override
 public int[] compress(int[] src) {
+CodecEvents.Compress ev = CodecEvents.beginCompress();
 if (src == null) throw new IllegalArgumentException("src null");
 final int n = src.length;
 final int k = (opts.k > 0) ? opts.k : computeKAuto(src);
-final int dataBits = n * k;
-int[] out = allocWithHeader(Headers.HEADER_WORDS, dataBits);
+int[] out = allocWithHeader(Headers.HEADER_WORDS, (long) n * k);
 Headers.write(out, n, CompressionType.CROSSING, k, 0, 0, 0);
 final int base = Headers.HEADER_WORDS;
-int bitPos = 0;
+long bitPos = (long) base << 5;
 for (int v : src) {
-BitIO.writeBitsLSB(out, (base << 5) + bitPos, k, v);
+BitIO.writeBitsLSB(out, bitPos, k, v);
 bitPos += k;
 }
-return out;
+return CodecEvents.compressed(ev, finish(out));
 }
 
 
 @Override
 public void decompress(int[] compressed, int[] dst) {
+CodecEvents.Decompress ev = CodecEvents.beginDecompress();
 int base = Headers.checkMagic(compressed);
 int n = Headers.n(compressed);
 int k = Headers.k(compressed);
 if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
-int bitPos = 0;
+long bitPos = (long) base << 5;
 for (int i = 0; i < n; i++) {
-dst[i] = BitIO.readBitsLSB(compressed, (base << 5) + bitPos, k);
+dst[i] = BitIO.readBitsLSB(compressed, bitPos, k);
+bitPos += k;
+}
+CodecEvents.decompressed(ev, compressed);
+}
+
+
+@Override
+public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+int base = Headers.checkMagic(compressed);
+int k = Headers.k(compressed);
+checkRange(Headers.n(compressed), from, dst, off, len);
+long bitPos = ((long) base << 5) + (long) from * k;
+for (int i = 0; i < len; i++) {
+dst[off + i] = BitIO.readBitsLSB(compressed, bitPos, k);
 bitPos += k;
 }
+CodecEvents.gotRange(ev, compressed, from, len);
 }
 
 
@@ -50,7 +69,33 @@ int base = Headers.checkMagic(compressed);
 int n = Headers.n(compressed);
 if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
 int k = Headers.k(compressed);
-int bitPos = index * k;
-return BitIO.readBitsLSB(compressed, (base << 5) + bitPos, k);
+return BitIO.readBitsLSB(compressed, ((long) base << 5) + (long) index * k, k);
+}
+
+
+@Override
+public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+BufferWords w = new BufferWords(compressed);
+int base = Headers.checkMagic(w);
+int k = Headers.k(w);
+checkRange(Headers.n(w), from, dst, off, len);
+long bitPos = ((long) base << 5) + (long) from * k;
+for (int i = 0; i < len; i++) {
+dst[off + i] = BitIO.readBitsLSB(w, bitPos, k);
+bitPos += k;
+}
+CodecEvents.gotRange(ev, w, from, len);
+}
+
+
+@Override
+public int get(ByteBuffer compressed, int index) {
+BufferWords w = new BufferWords(compressed);
+int base = Headers.checkMagic(w);
+int n = Headers.n(w);
+if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+int k = Headers.k(w);
+return BitIO.readBitsLSB(w, ((long) base << 5) + (long) index * k, k);
 }
 }
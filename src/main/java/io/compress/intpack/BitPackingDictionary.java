@@ -0,0 +1,125 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Variante DICTIONARY pour colonnes à faible cardinalité.
+ * Les d valeurs distinctes sont stockées triées en words bruts (table), puis chaque
+ * élément est remplacé par son code (rang dans la table) packé sur k = ceil(log2(d))
+ * bits avec le layout CROSSING. La largeur ne dépend donc plus de l'amplitude des
+ * valeurs mais de leur nombre ; les négatifs sont supportés.
+ *
+ * get(i) = table[code(i)] : deux accès, O(1).
+ * Comme la table est triée, un prédicat de plage sur les valeurs devient une plage
+ * de codes (voir DictionaryPredicates) et s'évalue sans décoder.
+ *
+ * Layout : header | table (d words) | codes (n * k bits)
+ * Header : k = bits par code, extraA = d.
+ */
+final class BitPackingDictionary extends BitPackingBase {
+
+    BitPackingDictionary(CompressorFactory.Options opts) { super(opts); }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        final int[] dict = distinctSorted(src);
+        final int d = dict.length;
+        final int k = ceilLog2(d);
+        final int base = Headers.HEADER_WORDS;
+        int[] out = allocWithHeader(base + d, (long) n * k);
+        Headers.write(out, n, CompressionType.DICTIONARY, k, 0, d, 0);
+        System.arraycopy(dict, 0, out, base, d);
+        final long codeBase = (long) (base + d) << 5;
+        long bitPos = 0;
+        for (int v : src) {
+            BitIO.writeBitsLSB(out, codeBase + bitPos, k, Arrays.binarySearch(dict, v));
+            bitPos += k;
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        int k = Headers.k(compressed);
+        int d = Headers.extraA(compressed);
+        if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
+        final long codeBase = (long) (base + d) << 5;
+        long bitPos = 0;
+        for (int i = 0; i < n; i++) {
+            dst[i] = compressed[base + BitIO.readBitsLSB(compressed, codeBase + bitPos, k)];
+            bitPos += k;
+        }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        int base = Headers.checkMagic(compressed);
+        checkRange(Headers.n(compressed), from, dst, off, len);
+        int k = Headers.k(compressed);
+        int d = Headers.extraA(compressed);
+        long bitPos = ((long) (base + d) << 5) + (long) from * k;
+        for (int i = 0; i < len; i++) {
+            dst[off + i] = compressed[base + BitIO.readBitsLSB(compressed, bitPos, k)];
+            bitPos += k;
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int k = Headers.k(compressed);
+        int d = Headers.extraA(compressed);
+        int code = BitIO.readBitsLSB(compressed, ((long) (base + d) << 5) + (long) index * k, k);
+        return compressed[base + code];
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int k = Headers.k(w);
+        int d = Headers.extraA(w);
+        return w.word(base + BitIO.readBitsLSB(w, ((long) (base + d) << 5) + (long) index * k, k));
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        checkRange(Headers.n(w), from, dst, off, len);
+        int k = Headers.k(w);
+        int d = Headers.extraA(w);
+        long bitPos = ((long) (base + d) << 5) + (long) from * k;
+        for (int i = 0; i < len; i++) {
+            dst[off + i] = w.word(base + BitIO.readBitsLSB(w, bitPos, k));
+            bitPos += k;
+        }
+        CodecEvents.gotRange(ev, w, from, len);
+    }
+
+    private static int[] distinctSorted(int[] src) {
+        int[] s = src.clone();
+        Arrays.sort(s);
+        int d = 0;
+        for (int i = 0; i < s.length; i++) {
+            if (i == 0 || s[i] != s[d - 1]) s[d++] = s[i];
+        }
+        return Arrays.copyOf(s, d);
+    }
+}
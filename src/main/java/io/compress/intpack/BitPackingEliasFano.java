@@ -0,0 +1,236 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Variante ELIAS_FANO pour suites non décroissantes de valeurs >= 0.
+ * Chaque valeur v est coupée en L bits bas et une partie haute h = v >>> L,
+ * avec L = floor(log2(u/n)) (u = max+1) :
+ * - bits bas : n * L bits packés LSB-first à la suite (comme CROSSING),
+ * - bits hauts : bitvector unaire, l'élément i met à 1 le bit h_i + i ; chaque
+ *   « bucket » h se termine par un 0. Longueur = n + (max >>> L) + 1 bits.
+ * Total ≈ n * (2 + log2(u/n)) bits, proche de l'optimum théorique.
+ *
+ * Index de select : la position d'un 1 sur SELECT_SAMPLE (et d'un 0 sur
+ * SELECT_SAMPLE) est stockée en clair ; select1/select0 partent de l'échantillon
+ * et comptent les bits avec Integer.bitCount. get(i) = (select1(i) - i) << L | bas(i).
+ * decompress de plage : un seul select1(from), puis parcours des 1 suivants du bitvector.
+ *
+ * Layout : header | bits bas | bits hauts (alignés sur un word) | samples select1 | samples select0
+ * Header : k = L, extraA = longueur en bits du bitvector haut.
+ */
+final class BitPackingEliasFano extends BitPackingBase {
+    static final int SELECT_SAMPLE = 64;
+
+    BitPackingEliasFano(CompressorFactory.Options opts) { super(opts); }
+
+    /** Offsets (en words) des zones du buffer, dérivés du header. */
+    private static final class Layout {
+        final int n, lowBits, highBits;
+        final int lowBase, highBase, sel1Base, sel0Base;
+
+        Layout(int[] c) {
+            this(Headers.checkMagic(c), Headers.n(c), Headers.k(c), Headers.extraA(c));
+        }
+
+        Layout(BufferWords c) {
+            this(Headers.checkMagic(c), Headers.n(c), Headers.k(c), Headers.extraA(c));
+        }
+
+        private Layout(int base, int n, int lowBits, int highBits) {
+            this.lowBase = base;
+            this.n = n;
+            this.lowBits = lowBits;
+            this.highBits = highBits;
+            highBase = lowBase + (int) (((long) n * lowBits + 31) >>> 5);
+            sel1Base = highBase + ((highBits + 31) >>> 5);
+            sel0Base = sel1Base + samples(n);
+        }
+    }
+
+    private static int samples(int count) {
+        return (count + SELECT_SAMPLE - 1) / SELECT_SAMPLE;
+    }
+
+    private static int lowBitsFor(int n, int max) {
+        if (n == 0) return 0;
+        long ratio = ((long) max + 1) / n;
+        return (ratio <= 1) ? 0 : 63 - Long.numberOfLeadingZeros(ratio);
+    }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        int prev = 0;
+        for (int v : src) {
+            if (v < prev) throw new IllegalArgumentException("ELIAS_FANO: suite non décroissante de valeurs >= 0 requise");
+            prev = v;
+        }
+        final int max = prev;
+        final int L = lowBitsFor(n, max);
+        final int zeros = (n == 0) ? 0 : (max >>> L) + 1;
+        if ((long) n + zeros > Integer.MAX_VALUE) throw new IllegalArgumentException("ELIAS_FANO: bitvector haut trop long");
+        final int highBits = n + zeros;
+
+        final int base = Headers.HEADER_WORDS;
+        final int highBase = base + (int) (((long) n * L + 31) >>> 5);
+        final int sel1Base = highBase + ((highBits + 31) >>> 5);
+        final int sel0Base = sel1Base + samples(n);
+        int[] out = new int[checkedWords((long) sel0Base + samples(zeros))];
+        Headers.write(out, n, CompressionType.ELIAS_FANO, L, 0, highBits, 0);
+
+        for (int i = 0; i < n; i++) {
+            int v = src[i];
+            BitIO.writeBitsLSB(out, ((long) base << 5) + (long) i * L, L, v);
+            int pos = (v >>> L) + i;
+            out[highBase + (pos >>> 5)] |= 1 << (pos & 31);
+            if (i % SELECT_SAMPLE == 0) out[sel1Base + i / SELECT_SAMPLE] = pos;
+        }
+        // Le j-ième 0 ferme le bucket j : il est précédé des éléments de partie haute <= j.
+        int idx = 0;
+        for (int s = 0; s < samples(zeros); s++) {
+            int j = s * SELECT_SAMPLE;
+            while (idx < n && (src[idx] >>> L) <= j) idx++;
+            out[sel0Base + s] = j + idx;
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        Layout l = new Layout(compressed);
+        if (dst.length < l.n) throw new IllegalArgumentException("dst trop petit");
+        final long lowStart = (long) l.lowBase << 5;
+        int i = 0;
+        for (int w = 0; i < l.n; w++) {
+            int word = compressed[l.highBase + w];
+            while (word != 0) {
+                int high = (w << 5) + Integer.numberOfTrailingZeros(word) - i;
+                dst[i] = (high << l.lowBits) | BitIO.readBitsLSB(compressed, lowStart + (long) i * l.lowBits, l.lowBits);
+                i++;
+                word &= word - 1;
+            }
+        }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        Layout l = new Layout(compressed);
+        checkRange(l.n, from, dst, off, len);
+        if (len > 0) {
+            int pos = select(compressed, l.highBase, compressed[l.sel1Base + from / SELECT_SAMPLE], from % SELECT_SAMPLE, true);
+            int w = pos >>> 5;
+            int word = compressed[l.highBase + w] & (-1 << (pos & 31));
+            long lowBit = ((long) l.lowBase << 5) + (long) from * l.lowBits;
+            for (int i = from, end = from + len; i < end; i++, lowBit += l.lowBits) {
+                while (word == 0) word = compressed[l.highBase + ++w];
+                int high = (w << 5) + Integer.numberOfTrailingZeros(word) - i;
+                dst[off++] = (high << l.lowBits) | BitIO.readBitsLSB(compressed, lowBit, l.lowBits);
+                word &= word - 1;
+            }
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        Layout l = new Layout(compressed);
+        if (index < 0 || index >= l.n) throw new IndexOutOfBoundsException();
+        int high = select(compressed, l.highBase, compressed[l.sel1Base + index / SELECT_SAMPLE],
+                index % SELECT_SAMPLE, true) - index;
+        return (high << l.lowBits) | BitIO.readBitsLSB(compressed, ((long) l.lowBase << 5) + (long) index * l.lowBits, l.lowBits);
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        Layout l = new Layout(w);
+        if (index < 0 || index >= l.n) throw new IndexOutOfBoundsException();
+        int high = select(w, l.highBase, w.word(l.sel1Base + index / SELECT_SAMPLE), index % SELECT_SAMPLE) - index;
+        return (high << l.lowBits) | BitIO.readBitsLSB(w, ((long) l.lowBase << 5) + (long) index * l.lowBits, l.lowBits);
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords c = new BufferWords(compressed);
+        Layout l = new Layout(c);
+        checkRange(l.n, from, dst, off, len);
+        if (len > 0) {
+            int pos = select(c, l.highBase, c.word(l.sel1Base + from / SELECT_SAMPLE), from % SELECT_SAMPLE);
+            int w = pos >>> 5;
+            int word = c.word(l.highBase + w) & (-1 << (pos & 31));
+            long lowBit = ((long) l.lowBase << 5) + (long) from * l.lowBits;
+            for (int i = from, end = from + len; i < end; i++, lowBit += l.lowBits) {
+                while (word == 0) word = c.word(l.highBase + ++w);
+                int high = (w << 5) + Integer.numberOfTrailingZeros(word) - i;
+                dst[off++] = (high << l.lowBits) | BitIO.readBitsLSB(c, lowBit, l.lowBits);
+                word &= word - 1;
+            }
+        }
+        CodecEvents.gotRange(ev, c, from, len);
+    }
+
+    /**
+     * Premier indice i tel que v[i] >= key (n si aucun).
+     * Saute directement au bucket de key via select0, puis parcourt ce seul bucket.
+     */
+    static int nextGEQ(int[] compressed, int key) {
+        Layout l = new Layout(compressed);
+        if (l.n == 0 || key <= 0) return 0;
+        int h = key >>> l.lowBits;
+        int zeros = l.highBits - l.n;
+        if (h >= zeros) return l.n; // au-delà du dernier bucket
+        int pos = (h == 0) ? 0 : select(compressed, l.highBase,
+                compressed[l.sel0Base + (h - 1) / SELECT_SAMPLE], (h - 1) % SELECT_SAMPLE, false) + 1;
+        int i = pos - h; // nombre de 1 avant pos
+        final long lowStart = (long) l.lowBase << 5;
+        while (i < l.n) {
+            if ((compressed[l.highBase + (pos >>> 5)] & (1 << (pos & 31))) == 0) return i; // bucket suivant : > key
+            int v = (h << l.lowBits) | BitIO.readBitsLSB(compressed, lowStart + (long) i * l.lowBits, l.lowBits);
+            if (v >= key) return i;
+            i++; pos++;
+        }
+        return l.n;
+    }
+
+    /**
+     * Position du (rank+1)-ième bit à 'ones' (1 ou 0) à partir de la position
+     * échantillonnée 'from' (qui est elle-même un tel bit, compté pour rank = 0).
+     */
+    private static int select(int[] c, int highBase, int from, int rank, boolean ones) {
+        int w = from >>> 5;
+        int word = (ones ? c[highBase + w] : ~c[highBase + w]) & (-1 << (from & 31));
+        while (true) {
+            int cnt = Integer.bitCount(word);
+            if (rank < cnt) {
+                for (int r = 0; r < rank; r++) word &= word - 1;
+                return (w << 5) + Integer.numberOfTrailingZeros(word);
+            }
+            rank -= cnt;
+            w++;
+            word = ones ? c[highBase + w] : ~c[highBase + w];
+        }
+    }
+
+    // select1 sur un buffer sérialisé (get() et decompress de plage).
+    private static int select(BufferWords c, int highBase, int from, int rank) {
+        int w = from >>> 5;
+        int word = c.word(highBase + w) & (-1 << (from & 31));
+        while (true) {
+            int cnt = Integer.bitCount(word);
+            if (rank < cnt) {
+                for (int r = 0; r < rank; r++) word &= word - 1;
+                return (w << 5) + Integer.numberOfTrailingZeros(word);
+            }
+            rank -= cnt;
+            word = c.word(highBase + ++w);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package io.compress.intpack;
 
+import java.nio.ByteBuffer;
+
 
 /**
  * Variante NO_CROSSING : chaque valeur tient entièrement dans un word.
@@ -11,11 +13,12 @@ BitPackingNoCrossing(CompressorFactory.Options opts) { super(opts); }
 
 @Override
 public int[] compress(int[] src) {
+CodecEvents.Compress ev = CodecEvents.beginCompress();
 final int n = src.length;
 final int k = (opts.k > 0) ? opts.k : computeKAuto(src);
 final int per = perWordNoCrossing(k);
-final int wordsForData = (n + per - 1) / per; // chaque mot contient per valeurs
-int[] out = new int[Headers.HEADER_WORDS + wordsForData];
+final long wordsForData = ((long) n + per - 1) / per; // chaque mot contient per valeurs
+int[] out = new int[checkedWords(Headers.HEADER_WORDS + wordsForData)];
 Headers.write(out, n, CompressionType.NO_CROSSING, k, 0, 0, 0);
 int w = Headers.HEADER_WORDS;
 int cnt = 0; int off = 0; int cur = 0;
@@ -25,18 +28,19 @@ cnt++; off += k;
 if (cnt == per) { out[w++] = cur; cnt = 0; off = 0; cur = 0; }
 }
 if (cnt != 0) out[w] = cur; // dernier mot partiellement rempli
-return out;
+return CodecEvents.compressed(ev, finish(out));
 }
 
 
 @Override
 public void decompress(int[] compressed, int[] dst) {
-Headers.checkMagic(compressed);
+CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+int base = Headers.checkMagic(compressed);
 int n = Headers.n(compressed);
 int k = Headers.k(compressed);
 int per = perWordNoCrossing(k);
 if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
-int w = Headers.HEADER_WORDS;
+int w = base;
 int outIdx = 0;
 while (outIdx < n) {
 int word = compressed[w++];
@@ -45,18 +49,70 @@ int off = i * k;
 dst[outIdx++] = BitIO.readBitsInWordLSB(word, off, k);
 }
 }
+CodecEvents.decompressed(ev, compressed);
+}
+
+
+@Override
+public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+int base = Headers.checkMagic(compressed);
+int k = Headers.k(compressed);
+int per = perWordNoCrossing(k);
+checkRange(Headers.n(compressed), from, dst, off, len);
+int w = base + from / per;
+int slot = from % per;
+int word = (len > 0) ? compressed[w] : 0;
+for (int i = 0; i < len; i++) {
+if (slot == per) { word = compressed[++w]; slot = 0; }
+dst[off + i] = BitIO.readBitsInWordLSB(word, slot * k, k);
+slot++;
+}
+CodecEvents.gotRange(ev, compressed, from, len);
 }
 
 
 @Override
 public int get(int[] compressed, int index) {
-Headers.checkMagic(compressed);
+int base = Headers.checkMagic(compressed);
 int n = Headers.n(compressed);
 if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
 int k = Headers.k(compressed);
 int per = perWordNoCrossing(k);
-int w = Headers.HEADER_WORDS + (index / per);
+int w = base + (index / per);
 int off = (index % per) * k;
 return BitIO.readBitsInWordLSB(compressed[w], off, k);
 }
+
+
+@Override
+public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+BufferWords words = new BufferWords(compressed);
+int base = Headers.checkMagic(words);
+int k = Headers.k(words);
+int per = perWordNoCrossing(k);
+checkRange(Headers.n(words), from, dst, off, len);
+int w = base + from / per;
+int slot = from % per;
+int word = (len > 0) ? words.word(w) : 0;
+for (int i = 0; i < len; i++) {
+if (slot == per) { word = words.word(++w); slot = 0; }
+dst[off + i] = BitIO.readBitsInWordLSB(word, slot * k, k);
+slot++;
+}
+CodecEvents.gotRange(ev, words, from, len);
+}
+
+
+@Override
+public int get(ByteBuffer compressed, int index) {
+BufferWords words = new BufferWords(compressed);
+int base = Headers.checkMagic(words);
+int n = Headers.n(words);
+if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+int k = Headers.k(words);
+int per = perWordNoCrossing(k);
+return BitIO.readBitsInWordLSB(words.word(base + index / per), (index % per) * k, k);
+}
 }
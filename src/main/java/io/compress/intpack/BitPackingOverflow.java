@@ -1,7 +1,6 @@
 package io.compress.intpack;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -19,21 +18,29 @@ final class BitPackingOverflow extends BitPackingBase {
     private static final class Plan {
         int kSmall;
         int payloadBits;
-        int[] mapIndex; // -1 => local (value dans payload), >=0 => index dans overflowVals
-        List<Integer> overflowVals = new ArrayList<>();
+        int m; // nombre de valeurs envoyées en overflow
     }
 
+    /** Largeur en bits de v (33 pour un négatif : overflow obligatoire). */
+    private static int width(int v) {
+        return (v < 0) ? 33 : 32 - Integer.numberOfLeadingZeros(v);
+    }
+
+    // Une seule passe sur src (histogramme des largeurs), puis chaque k candidat est évalué
+    // en O(1) : m(k) = nombre de valeurs de largeur > k. Pas de tableau de n entrées.
     private Plan plan(int[] src) {
+        CodecEvents.OverflowPlan ev = new CodecEvents.OverflowPlan();
+        ev.begin();
         final int n = src.length;
-        Plan best = null;
-        long bestBits = Long.MAX_VALUE;
+        int[] hist = new int[34];
+        for (int v : src) hist[width(v)]++;
 
+        Plan best = new Plan();
+        long bestBits = Long.MAX_VALUE;
+        int m = n - hist[0];
         // Essaye plusieurs k candidats et conserve celui qui minimise total bits
         for (int k = 1; k <= 32; k++) {
-            int m = 0;
-            for (int v : src) {
-                if (v < 0 || v >= (1L << k)) m++; // négatifs → overflow obligatoire
-            }
+            m -= hist[k];
             int bitsIdx = ceilLog2(Math.max(1, m));
             int payloadBits = Math.max(k, bitsIdx);
             long dataBits = (long) n * (1 + payloadBits);
@@ -41,80 +48,79 @@ final class BitPackingOverflow extends BitPackingBase {
             long total = dataBits + overflowBits;
             if (total < bestBits) {
                 bestBits = total;
-                best = new Plan();
                 best.kSmall = k;
                 best.payloadBits = payloadBits;
+                best.m = m;
             }
         }
-
-        // Construit le mapping selon kSmall choisi
-        Plan p = best;
-        p.mapIndex = new int[n];
-        for (int i = 0; i < n; i++) {
-            int v = src[i];
-            if (v < 0 || v >= (1L << p.kSmall)) {
-                p.mapIndex[i] = p.overflowVals.size();
-                p.overflowVals.add(v);
-            } else {
-                p.mapIndex[i] = -1; // local
-            }
+        ev.end();
+        if (ev.shouldCommit()) {
+            ev.n = n;
+            ev.k = best.kSmall;
+            ev.payloadBits = best.payloadBits;
+            ev.overflow = best.m;
+            ev.commit();
         }
-        return p;
+        return best;
+    }
+
+
+    /** Premier word de la zone overflow (alignée après n * (1 + payloadBits) bits). */
+    private static int overflowBase(int base, int n, int payloadBits) {
+        return (int) ((((long) base << 5) + (long) n * (1 + payloadBits) + 31) >>> 5);
     }
 
 
     @Override
     public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
         if (src == null) throw new IllegalArgumentException("src null");
         final int n = src.length;
         final Plan p = plan(src);
-        final int m = p.overflowVals.size();
-    final int dataBits = n * (1 + p.payloadBits); // 1 flag + payload
-    final int overflowBits = m * 32; // words d'overflow bruts
+        final int m = p.m;
+    final long dataBits = (long) n * (1 + p.payloadBits); // 1 flag + payload
+    final long overflowBits = m * 32L; // words d'overflow bruts
 
         int[] out = allocWithHeader(Headers.HEADER_WORDS, dataBits + overflowBits);
     Headers.write(out, n, CompressionType.OVERFLOW, p.kSmall, 0, p.payloadBits, m);
 
-        // Écrit le flux principal (flag + payload)
+        // Écrit le flux principal (flag + payload) et, au fil de l'eau, la zone overflow
+        // alignée sur le word qui suit le flux principal
         final int base = Headers.HEADER_WORDS;
-        int bitPos = 0;
+        final int overflowBaseWord = overflowBase(base, n, p.payloadBits);
+        long bitPos = (long) base << 5;
+        int idx = 0;
         for (int i = 0; i < n; i++) {
-            int idx = p.mapIndex[i];
-            if (idx < 0) {
-                BitIO.writeBitsLSB(out, (base << 5) + bitPos, 1, 0);
-                BitIO.writeBitsLSB(out, (base << 5) + bitPos + 1, p.payloadBits, src[i]);
+            int v = src[i];
+            if (width(v) <= p.kSmall) {
+                BitIO.writeBitsLSB(out, bitPos, 1, 0);
+                BitIO.writeBitsLSB(out, bitPos + 1, p.payloadBits, v);
             } else {
-                BitIO.writeBitsLSB(out, (base << 5) + bitPos, 1, 1);
-                BitIO.writeBitsLSB(out, (base << 5) + bitPos + 1, p.payloadBits, idx);
+                BitIO.writeBitsLSB(out, bitPos, 1, 1);
+                BitIO.writeBitsLSB(out, bitPos + 1, p.payloadBits, idx);
+                out[overflowBaseWord + idx++] = v;
             }
             bitPos += 1 + p.payloadBits;
         }
-
-        // Ajoute la zone overflow alignée sur le prochain word
-        int overflowBaseBits = (base << 5) + dataBits;
-        int overflowBaseWord = (overflowBaseBits + 31) >>> 5;
-        for (int i = 0; i < m; i++) {
-            out[overflowBaseWord + i] = p.overflowVals.get(i);
-        }
-        return out;
+        return CodecEvents.compressed(ev, finish(out));
     }
 
 
     @Override
     public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
     int base = Headers.checkMagic(compressed);
     int n = Headers.n(compressed);
     int payloadBits = Headers.extraA(compressed);
         int m = Headers.extraB(compressed);
         if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
 
-        int dataBits = n * (1 + payloadBits);
-        int overflowBaseWord = ((base << 5) + dataBits + 31) >>> 5;
+        int overflowBaseWord = overflowBase(base, n, payloadBits);
 
-        int bitPos = 0;
+        long bitPos = (long) base << 5;
         for (int i = 0; i < n; i++) {
-            int flag = BitIO.readBitsLSB(compressed, (base << 5) + bitPos, 1);
-            int payload = BitIO.readBitsLSB(compressed, (base << 5) + bitPos + 1, payloadBits);
+            int flag = BitIO.readBitsLSB(compressed, bitPos, 1);
+            int payload = BitIO.readBitsLSB(compressed, bitPos + 1, payloadBits);
             if (flag == 0) {
                 dst[i] = payload;
             } else {
@@ -123,6 +129,33 @@ final class BitPackingOverflow extends BitPackingBase {
             }
             bitPos += 1 + payloadBits;
         }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        int payloadBits = Headers.extraA(compressed);
+        int m = Headers.extraB(compressed);
+        checkRange(n, from, dst, off, len);
+        int overflowBaseWord = overflowBase(base, n, payloadBits);
+
+        long bitPos = ((long) base << 5) + (long) from * (1 + payloadBits);
+        for (int i = 0; i < len; i++) {
+            int flag = BitIO.readBitsLSB(compressed, bitPos, 1);
+            int payload = BitIO.readBitsLSB(compressed, bitPos + 1, payloadBits);
+            if (flag == 0) {
+                dst[off + i] = payload;
+            } else {
+                if (payload < 0 || payload >= m) throw new IllegalStateException("idx overflow invalide");
+                dst[off + i] = compressed[overflowBaseWord + payload];
+            }
+            bitPos += 1 + payloadBits;
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
     }
 
 
@@ -133,14 +166,59 @@ final class BitPackingOverflow extends BitPackingBase {
         if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
         int payloadBits = Headers.extraA(compressed);
         int m = Headers.extraB(compressed);
-        int dataBits = n * (1 + payloadBits);
-        int overflowBaseWord = ((base << 5) + dataBits + 31) >>> 5;
+        int overflowBaseWord = overflowBase(base, n, payloadBits);
 
-        int bitPos = index * (1 + payloadBits);
-        int flag = BitIO.readBitsLSB(compressed, (base << 5) + bitPos, 1);
-        int payload = BitIO.readBitsLSB(compressed, (base << 5) + bitPos + 1, payloadBits);
+        long bitPos = ((long) base << 5) + (long) index * (1 + payloadBits);
+        int flag = BitIO.readBitsLSB(compressed, bitPos, 1);
+        int payload = BitIO.readBitsLSB(compressed, bitPos + 1, payloadBits);
         if (flag == 0) return payload;
         if (payload < 0 || payload >= m) throw new IllegalStateException("idx overflow invalide");
         return compressed[overflowBaseWord + payload];
     }
+
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        int payloadBits = Headers.extraA(w);
+        int m = Headers.extraB(w);
+        checkRange(n, from, dst, off, len);
+        int overflowBaseWord = overflowBase(base, n, payloadBits);
+
+        long bitPos = ((long) base << 5) + (long) from * (1 + payloadBits);
+        for (int i = 0; i < len; i++) {
+            int flag = BitIO.readBitsLSB(w, bitPos, 1);
+            int payload = BitIO.readBitsLSB(w, bitPos + 1, payloadBits);
+            if (flag == 0) {
+                dst[off + i] = payload;
+            } else {
+                if (payload < 0 || payload >= m) throw new IllegalStateException("idx overflow invalide");
+                dst[off + i] = w.word(overflowBaseWord + payload);
+            }
+            bitPos += 1 + payloadBits;
+        }
+        CodecEvents.gotRange(ev, w, from, len);
+    }
+
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int payloadBits = Headers.extraA(w);
+        int m = Headers.extraB(w);
+        int overflowBaseWord = overflowBase(base, n, payloadBits);
+
+        long bitPos = ((long) base << 5) + (long) index * (1 + payloadBits);
+        int flag = BitIO.readBitsLSB(w, bitPos, 1);
+        int payload = BitIO.readBitsLSB(w, bitPos + 1, payloadBits);
+        if (flag == 0) return payload;
+        if (payload < 0 || payload >= m) throw new IllegalStateException("idx overflow invalide");
+        return w.word(overflowBaseWord + payload);
+    }
 }
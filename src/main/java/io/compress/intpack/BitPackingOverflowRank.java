@@ -0,0 +1,187 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Variante OVERFLOW_RANK : comme OVERFLOW, les valeurs qui ne tiennent pas sur k bits
+ * (et les négatives) partent en zone d'overflow, mais sans index dans le flux principal :
+ * - flux principal : n * k bits exactement (0 pour les exceptions),
+ * - bitmap des exceptions : 1 bit par valeur,
+ * - répertoire de rang : nombre d'exceptions avant chaque superbloc de SUPERBLOCK bits.
+ * Le slot d'overflow de l'exception i est rank(i) = nombre de 1 avant i dans la bitmap :
+ * répertoire + au plus SUPERBLOCK/32 - 1 Integer.bitCount, soit O(1).
+ *
+ * Coût : n * (k + 1 + 32/SUPERBLOCK) + 32 * m bits, contre n * (1 + max(k, log2 m)) + 32 * m
+ * pour OVERFLOW : plus compact dès que les exceptions sont nombreuses.
+ * k est choisi en une passe (histogramme des largeurs), en minimisant ce coût.
+ *
+ * Layout : header | valeurs locales | bitmap (alignée) | répertoire | overflow (words bruts)
+ * Header : k, extraA = m (nombre d'exceptions).
+ */
+final class BitPackingOverflowRank extends BitPackingBase {
+    static final int SUPERBLOCK = 512;
+    private static final int WORDS_PER_SUPERBLOCK = SUPERBLOCK / 32;
+
+    BitPackingOverflowRank(CompressorFactory.Options opts) { super(opts); }
+
+    /** Offsets (en words) des zones du buffer, dérivés du header. */
+    private static final class Layout {
+        final int n, k, m, base, bitmapBase, dirBase, overflowBase;
+
+        Layout(int[] c) {
+            this(Headers.checkMagic(c), Headers.n(c), Headers.k(c), Headers.extraA(c));
+        }
+
+        Layout(BufferWords c) {
+            this(Headers.checkMagic(c), Headers.n(c), Headers.k(c), Headers.extraA(c));
+        }
+
+        Layout(int base, int n, int k, int m) {
+            this.base = base;
+            this.n = n;
+            this.k = k;
+            this.m = m;
+            bitmapBase = base + (int) (((long) n * k + 31) >>> 5);
+            dirBase = bitmapBase + ((n + 31) >>> 5);
+            overflowBase = dirBase + (n + SUPERBLOCK - 1) / SUPERBLOCK;
+        }
+    }
+
+    /** Largeur en bits de v (33 pour un négatif : toujours une exception). */
+    private static int width(int v) {
+        return (v < 0) ? 33 : 32 - Integer.numberOfLeadingZeros(v);
+    }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        int[] hist = new int[34];
+        for (int v : src) hist[width(v)]++;
+
+        int k = opts.k;
+        if (k <= 0) {
+            long bestBits = Long.MAX_VALUE;
+            int above = n - hist[0]; // valeurs de largeur > kk
+            for (int kk = 1; kk <= 32; kk++) {
+                above -= hist[kk];
+                long bits = (long) n * kk + 32L * above;
+                if (bits < bestBits) { bestBits = bits; k = kk; }
+            }
+        }
+        int m = 0;
+        for (int w = k + 1; w < hist.length; w++) m += hist[w];
+
+        Layout l = new Layout(Headers.HEADER_WORDS, n, k, m);
+        int[] out = new int[checkedWords((long) l.overflowBase + m)];
+        Headers.write(out, n, CompressionType.OVERFLOW_RANK, k, 0, m, 0);
+        final long localBit = (long) l.base << 5;
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            int v = src[i];
+            if (width(v) > k) {
+                out[l.bitmapBase + (i >>> 5)] |= 1 << (i & 31);
+                out[l.overflowBase + j++] = v;
+            } else {
+                BitIO.writeBitsLSB(out, localBit + (long) i * k, k, v);
+            }
+        }
+        int ones = 0;
+        for (int s = 0; s < (n + SUPERBLOCK - 1) / SUPERBLOCK; s++) {
+            out[l.dirBase + s] = ones;
+            int end = Math.min((s + 1) * WORDS_PER_SUPERBLOCK, (n + 31) >>> 5);
+            for (int w = s * WORDS_PER_SUPERBLOCK; w < end; w++) ones += Integer.bitCount(out[l.bitmapBase + w]);
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        Layout l = new Layout(compressed);
+        if (dst.length < l.n) throw new IllegalArgumentException("dst trop petit");
+        decodeRange(compressed, l, 0, dst, 0, l.n);
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        Layout l = new Layout(compressed);
+        checkRange(l.n, from, dst, off, len);
+        decodeRange(compressed, l, from, dst, off, len);
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    private static void decodeRange(int[] c, Layout l, int from, int[] dst, int off, int len) {
+        int j = (len == 0) ? 0 : rank(c, l, from);
+        long bit = ((long) l.base << 5) + (long) from * l.k;
+        for (int i = from, end = from + len; i < end; i++, bit += l.k) {
+            if ((c[l.bitmapBase + (i >>> 5)] & (1 << (i & 31))) != 0) {
+                if (j >= l.m) throw new IllegalStateException("idx overflow invalide");
+                dst[off++] = c[l.overflowBase + j++];
+            } else {
+                dst[off++] = BitIO.readBitsLSB(c, bit, l.k);
+            }
+        }
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        Layout l = new Layout(compressed);
+        if (index < 0 || index >= l.n) throw new IndexOutOfBoundsException();
+        int word = compressed[l.bitmapBase + (index >>> 5)];
+        if ((word & (1 << (index & 31))) == 0) return BitIO.readBitsLSB(compressed, ((long) l.base << 5) + (long) index * l.k, l.k);
+        int r = rank(compressed, l, index);
+        if (r >= l.m) throw new IllegalStateException("idx overflow invalide");
+        return compressed[l.overflowBase + r];
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords w = new BufferWords(compressed);
+        Layout l = new Layout(w);
+        checkRange(l.n, from, dst, off, len);
+        int j = (len == 0) ? 0 : rank(w, l, from);
+        long bit = ((long) l.base << 5) + (long) from * l.k;
+        for (int i = from, end = from + len; i < end; i++, bit += l.k) {
+            if ((w.word(l.bitmapBase + (i >>> 5)) & (1 << (i & 31))) != 0) {
+                if (j >= l.m) throw new IllegalStateException("idx overflow invalide");
+                dst[off++] = w.word(l.overflowBase + j++);
+            } else {
+                dst[off++] = BitIO.readBitsLSB(w, bit, l.k);
+            }
+        }
+        CodecEvents.gotRange(ev, w, from, len);
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        Layout l = new Layout(w);
+        if (index < 0 || index >= l.n) throw new IndexOutOfBoundsException();
+        int word = w.word(l.bitmapBase + (index >>> 5));
+        if ((word & (1 << (index & 31))) == 0) return BitIO.readBitsLSB(w, ((long) l.base << 5) + (long) index * l.k, l.k);
+        int r = rank(w, l, index);
+        if (r >= l.m) throw new IllegalStateException("idx overflow invalide");
+        return w.word(l.overflowBase + r);
+    }
+
+    private static int rank(BufferWords c, Layout l, int i) {
+        int wi = i >>> 5;
+        int r = c.word(l.dirBase + i / SUPERBLOCK) + Integer.bitCount(c.word(l.bitmapBase + wi) & ((1 << (i & 31)) - 1));
+        for (int x = (i / SUPERBLOCK) * WORDS_PER_SUPERBLOCK; x < wi; x++) r += Integer.bitCount(c.word(l.bitmapBase + x));
+        return r;
+    }
+
+    /** Nombre d'exceptions avant l'indice i. */
+    private static int rank(int[] c, Layout l, int i) {
+        int wi = i >>> 5;
+        int r = c[l.dirBase + i / SUPERBLOCK] + Integer.bitCount(c[l.bitmapBase + wi] & ((1 << (i & 31)) - 1));
+        for (int x = (i / SUPERBLOCK) * WORDS_PER_SUPERBLOCK; x < wi; x++) r += Integer.bitCount(c[l.bitmapBase + x]);
+        return r;
+    }
+}
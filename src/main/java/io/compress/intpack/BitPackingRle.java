@@ -0,0 +1,168 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Variante RLE (run-length) pour colonnes faites de longues plages de valeurs identiques.
+ * Chaque run j est décrit par sa valeur et sa fin cumulée (exclusive) end_j, les deux
+ * packés en bits : valeurs sur k bits (32 si négatifs), fins sur ceil(log2(n+1)) bits.
+ * La taille ne dépend que du nombre de runs r, pas de n.
+ *
+ * get(i) : dichotomie sur les fins (premier j tel que end_j > i), O(log r).
+ * decompress : Arrays.fill par run ; decompress de plage fait une seule dichotomie
+ * pour le run de from, puis remplit run par run.
+ *
+ * Layout : header | valeurs (r * k bits) | fins (r * endBits bits), contigus en bits.
+ * Header : k = bits par valeur, extraA = r, extraB = endBits.
+ */
+final class BitPackingRle extends BitPackingBase {
+
+    BitPackingRle(CompressorFactory.Options opts) { super(opts); }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        int r = 0;
+        boolean negative = false;
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            int v = src[i];
+            if (i == 0 || v != src[i - 1]) {
+                r++;
+                if (v < 0) negative = true; else if (v > max) max = v;
+            }
+        }
+        final int k = (opts.k > 0) ? opts.k : (negative ? 32 : Math.max(1, ceilLog2(max + 1)));
+        final int endBits = ceilLog2(n + 1);
+        final int base = Headers.HEADER_WORDS;
+        int[] out = allocWithHeader(base, (long) r * (k + endBits));
+        Headers.write(out, n, CompressionType.RLE, k, 0, r, endBits);
+
+        final long valBase = (long) base << 5;
+        final long endBase = valBase + (long) r * k;
+        int j = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || src[i] != src[i - 1]) {
+                BitIO.writeBitsLSB(out, valBase + (long) j * k, k, src[i - 1]);
+                BitIO.writeBitsLSB(out, endBase + (long) j * endBits, endBits, i);
+                j++;
+            }
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        int k = Headers.k(compressed);
+        int r = Headers.extraA(compressed);
+        int endBits = Headers.extraB(compressed);
+        if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
+        final long valBase = (long) base << 5;
+        final long endBase = valBase + (long) r * k;
+        int start = 0;
+        for (int j = 0; j < r; j++) {
+            int end = BitIO.readBitsLSB(compressed, endBase + (long) j * endBits, endBits);
+            Arrays.fill(dst, start, end, BitIO.readBitsLSB(compressed, valBase + (long) j * k, k));
+            start = end;
+        }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        int base = Headers.checkMagic(compressed);
+        checkRange(Headers.n(compressed), from, dst, off, len);
+        if (len > 0) {
+            int k = Headers.k(compressed);
+            int r = Headers.extraA(compressed);
+            int endBits = Headers.extraB(compressed);
+            final long valBase = (long) base << 5;
+            final long endBase = valBase + (long) r * k;
+            int j = runOf(compressed, endBase, endBits, r, from);
+            for (int i = from, end = from + len; i < end; j++) {
+                int stop = Math.min(end, BitIO.readBitsLSB(compressed, endBase + (long) j * endBits, endBits));
+                Arrays.fill(dst, off, off + (stop - i), BitIO.readBitsLSB(compressed, valBase + (long) j * k, k));
+                off += stop - i;
+                i = stop;
+            }
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int k = Headers.k(compressed);
+        int r = Headers.extraA(compressed);
+        int endBits = Headers.extraB(compressed);
+        final long valBase = (long) base << 5;
+        final long endBase = valBase + (long) r * k;
+        return BitIO.readBitsLSB(compressed, valBase + (long) runOf(compressed, endBase, endBits, r, index) * k, k);
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        checkRange(Headers.n(w), from, dst, off, len);
+        if (len > 0) {
+            int k = Headers.k(w);
+            int r = Headers.extraA(w);
+            int endBits = Headers.extraB(w);
+            final long valBase = (long) base << 5;
+            final long endBase = valBase + (long) r * k;
+            int j = runOf(w, endBase, endBits, r, from);
+            for (int i = from, end = from + len; i < end; j++) {
+                int stop = Math.min(end, BitIO.readBitsLSB(w, endBase + (long) j * endBits, endBits));
+                Arrays.fill(dst, off, off + (stop - i), BitIO.readBitsLSB(w, valBase + (long) j * k, k));
+                off += stop - i;
+                i = stop;
+            }
+        }
+        CodecEvents.gotRange(ev, w, from, len);
+    }
+
+    /** Premier run j tel que end_j > index (le dernier run finit à n > index : j dans [0, r-1]). */
+    private static int runOf(int[] c, long endBase, int endBits, int r, int index) {
+        int lo = 0, hi = r - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (BitIO.readBitsLSB(c, endBase + (long) mid * endBits, endBits) <= index) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int runOf(BufferWords c, long endBase, int endBits, int r, int index) {
+        int lo = 0, hi = r - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (BitIO.readBitsLSB(c, endBase + (long) mid * endBits, endBits) <= index) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int k = Headers.k(w);
+        int r = Headers.extraA(w);
+        int endBits = Headers.extraB(w);
+        final long valBase = (long) base << 5;
+        final long endBase = valBase + (long) r * k;
+        return BitIO.readBitsLSB(w, valBase + (long) runOf(w, endBase, endBits, r, index) * k, k);
+    }
+}
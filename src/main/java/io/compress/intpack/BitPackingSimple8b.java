@@ -0,0 +1,243 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Variante SIMPLE8B : chaque word de 64 bits porte un sélecteur (4 bits de poids fort)
+ * et un nombre variable de valeurs de même largeur dans les 60 bits restants
+ * (60 x 1 bit, 30 x 2 bits, ..., 1 x 60 bits ; sélecteurs 0/1 = 240/120 zéros).
+ * Le sélecteur est choisi glouton, word par word : la largeur s'adapte localement
+ * (comme perWordNoCrossing mais avec un k par word) et aucune valeur ne chevauche
+ * deux words. Valeurs vues en non signé 32 bits (les négatifs passent en 60 bits).
+ *
+ * Un word 64 bits est rangé sur deux ints (bas puis haut). Pour borner get(i), l'indice
+ * du premier élément de chaque groupe de SAMPLE words est stocké en clair : get fait
+ * une dichotomie sur ces échantillons puis parcourt au plus SAMPLE sélecteurs.
+ * decompress de plage se positionne de la même façon, puis décode word par word.
+ *
+ * Layout : header | échantillons (ceil(W/SAMPLE) ints) | W words 64 bits
+ * Header : k = 0, extraA = W.
+ */
+final class BitPackingSimple8b extends BitPackingBase {
+    static final int SAMPLE = 32;
+
+    private static final int[] COUNT = {240, 120, 60, 30, 20, 15, 12, 10, 8, 7, 6, 5, 4, 3, 2, 1};
+    private static final int[] BITS  = {  0,   0,  1,  2,  3,  4,  5,  6, 7, 8, 10, 12, 15, 20, 30, 60};
+
+    BitPackingSimple8b(CompressorFactory.Options opts) { super(opts); }
+
+    /** Sélecteur le plus dense qui loge src[i..] (un word n'est partiel qu'en fin de tableau). */
+    private static int choose(int[] src, int i) {
+        final int left = src.length - i;
+        for (int sel = 0; sel < 15; sel++) {
+            int m = Math.min(COUNT[sel], left);
+            long limit = 1L << BITS[sel];
+            boolean fits = true;
+            for (int j = 0; j < m && fits; j++) fits = (src[i + j] & 0xFFFFFFFFL) < limit;
+            if (fits) return sel;
+        }
+        return 15;
+    }
+
+    private static int samples(int words) {
+        return (words + SAMPLE - 1) / SAMPLE;
+    }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        // Passe 1 : nombre de words (le layout place les échantillons avant les données).
+        int words = 0;
+        for (int i = 0; i < n; words++) i += COUNT[choose(src, i)];
+
+        final int base = Headers.HEADER_WORDS;
+        int[] out = new int[checkedWords(base + ((long) words + SAMPLE - 1) / SAMPLE + 2L * words)];
+        final int wordsBase = base + samples(words);
+        Headers.write(out, n, CompressionType.SIMPLE8B, 0, 0, words, 0);
+
+        // Passe 2 : écriture.
+        int i = 0;
+        for (int w = 0; w < words; w++) {
+            if (w % SAMPLE == 0) out[base + w / SAMPLE] = i;
+            int sel = choose(src, i);
+            int b = BITS[sel];
+            int m = Math.min(COUNT[sel], n - i);
+            long word = (long) sel << 60;
+            if (b > 0) {
+                for (int j = 0; j < m; j++) word |= (src[i + j] & 0xFFFFFFFFL) << (j * b);
+            }
+            out[wordsBase + 2 * w] = (int) word;
+            out[wordsBase + 2 * w + 1] = (int) (word >>> 32);
+            i += m;
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        int words = Headers.extraA(compressed);
+        if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
+        final int wordsBase = base + samples(words);
+        int i = 0;
+        for (int w = 0; w < words; w++) {
+            long word = word(compressed, wordsBase, w);
+            int sel = (int) (word >>> 60);
+            int m = Math.min(COUNT[sel], n - i);
+            switch (sel) {
+                case 0:
+                case 1:
+                    for (int j = 0; j < m; j++) dst[i + j] = 0;
+                    break;
+                case 15:
+                    dst[i] = (int) word;
+                    break;
+                default: {
+                    int b = BITS[sel];
+                    long mask = (1L << b) - 1;
+                    for (int j = 0; j < m; j++) dst[i + j] = (int) ((word >>> (j * b)) & mask);
+                }
+            }
+            i += m;
+        }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        int base = Headers.checkMagic(compressed);
+        checkRange(Headers.n(compressed), from, dst, off, len);
+        if (len > 0) {
+            int words = Headers.extraA(compressed);
+            final int wordsBase = base + samples(words);
+            int lo = sampleOf(compressed, base, words, from);
+            int w = lo * SAMPLE;
+            int first = compressed[base + lo];
+            for (int i = from, end = from + len; i < end; w++) {
+                long word = word(compressed, wordsBase, w);
+                int sel = (int) (word >>> 60);
+                int stop = Math.min(end, first + COUNT[sel]);
+                if (i < stop) {
+                    int b = BITS[sel];
+                    if (b == 0) {
+                        for (; i < stop; i++) dst[off++] = 0;
+                    } else {
+                        long mask = (1L << b) - 1;
+                        for (; i < stop; i++) dst[off++] = (int) ((word >>> ((i - first) * b)) & mask);
+                    }
+                }
+                first += COUNT[sel];
+            }
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    /** Dernier échantillon dont le premier indice est <= index. */
+    private static int sampleOf(int[] c, int base, int words, int index) {
+        int lo = 0, hi = samples(words) - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (c[base + mid] <= index) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int words = Headers.extraA(compressed);
+        final int wordsBase = base + samples(words);
+        int lo = sampleOf(compressed, base, words, index);
+        int w = lo * SAMPLE;
+        int first = compressed[base + lo];
+        while (true) {
+            long word = word(compressed, wordsBase, w);
+            int sel = (int) (word >>> 60);
+            if (index < first + COUNT[sel]) {
+                int b = BITS[sel];
+                return (b == 0) ? 0 : (int) ((word >>> ((index - first) * b)) & ((1L << b) - 1));
+            }
+            first += COUNT[sel];
+            w++;
+        }
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords c = new BufferWords(compressed);
+        int base = Headers.checkMagic(c);
+        checkRange(Headers.n(c), from, dst, off, len);
+        if (len > 0) {
+            int words = Headers.extraA(c);
+            final int wordsBase = base + samples(words);
+            int lo = sampleOf(c, base, words, from);
+            int w = lo * SAMPLE;
+            int first = c.word(base + lo);
+            for (int i = from, end = from + len; i < end; w++) {
+                long word = word(c, wordsBase, w);
+                int sel = (int) (word >>> 60);
+                int stop = Math.min(end, first + COUNT[sel]);
+                if (i < stop) {
+                    int b = BITS[sel];
+                    if (b == 0) {
+                        for (; i < stop; i++) dst[off++] = 0;
+                    } else {
+                        long mask = (1L << b) - 1;
+                        for (; i < stop; i++) dst[off++] = (int) ((word >>> ((i - first) * b)) & mask);
+                    }
+                }
+                first += COUNT[sel];
+            }
+        }
+        CodecEvents.gotRange(ev, c, from, len);
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords c = new BufferWords(compressed);
+        int base = Headers.checkMagic(c);
+        int n = Headers.n(c);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int words = Headers.extraA(c);
+        final int wordsBase = base + samples(words);
+        int lo = sampleOf(c, base, words, index);
+        int w = lo * SAMPLE;
+        int first = c.word(base + lo);
+        while (true) {
+            long word = word(c, wordsBase, w);
+            int sel = (int) (word >>> 60);
+            if (index < first + COUNT[sel]) {
+                int b = BITS[sel];
+                return (b == 0) ? 0 : (int) ((word >>> ((index - first) * b)) & ((1L << b) - 1));
+            }
+            first += COUNT[sel];
+            w++;
+        }
+    }
+
+    private static long word(int[] c, int wordsBase, int w) {
+        return ((long) c[wordsBase + 2 * w + 1] << 32) | (c[wordsBase + 2 * w] & 0xFFFFFFFFL);
+    }
+
+    private static long word(BufferWords c, int wordsBase, int w) {
+        return ((long) c.word(wordsBase + 2 * w + 1) << 32) | (c.word(wordsBase + 2 * w) & 0xFFFFFFFFL);
+    }
+
+    private static int sampleOf(BufferWords c, int base, int words, int index) {
+        int lo = 0, hi = samples(words) - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (c.word(base + mid) <= index) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,213 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Variante STREAM_VBYTE : chaque valeur (vue en non signé) occupe 1 à 4 octets,
+ * sans largeur k commune. Les longueurs sont regroupées dans des octets de contrôle
+ * (2 bits par valeur, 4 valeurs par octet) séparés des octets de données, ce qui
+ * permet de décoder un groupe de 4 valeurs à partir d'une seule table indexée par
+ * l'octet de contrôle, sans branche par valeur. Robuste aux données de magnitudes
+ * très mélangées, où un k unique est pénalisant.
+ *
+ * Les octets sont rangés little-endian dans les words (octet 0 = bits 0..7 du word),
+ * cohérent avec la convention LSB-first de BitIO.
+ *
+ * Pour garder get(i) borné, l'offset (en octets) du début de chaque bloc de
+ * BLOCK valeurs est stocké en clair : get somme au plus BLOCK/4 longueurs de quads.
+ * decompress de plage fait ce même positionnement une fois, puis décode en flux.
+ *
+ * Layout : header | offsets de blocs | octets de contrôle | octets de données (+1 word de garde)
+ * Header : k = 0, extraA = nombre d'octets de contrôle, extraB = nombre d'octets de données.
+ * Les offsets de blocs et extraB sont des int : le flux de données est limité à
+ * Integer.MAX_VALUE octets, au-delà compress lève IllegalArgumentException.
+ */
+final class BitPackingStreamVByte extends BitPackingBase {
+    static final int BLOCK = 256;
+
+    // QUAD_LENGTH[c] = octets de données d'un quad de contrôle c ;
+    // LANE_OFFSET[c * 4 + j] = offset de la valeur j dans ce quad.
+    private static final int[] QUAD_LENGTH = new int[256];
+    private static final int[] LANE_OFFSET = new int[256 * 4];
+    private static final int[] LANE_MASK = {0xFF, 0xFFFF, 0xFFFFFF, -1};
+
+    static {
+        for (int c = 0; c < 256; c++) {
+            int off = 0;
+            for (int j = 0; j < 4; j++) {
+                LANE_OFFSET[c * 4 + j] = off;
+                off += ((c >>> (2 * j)) & 3) + 1;
+            }
+            QUAD_LENGTH[c] = off;
+        }
+    }
+
+    BitPackingStreamVByte(CompressorFactory.Options opts) { super(opts); }
+
+    private static int lengthCode(int v) {
+        return (v >>> 8 == 0) ? 0 : (v >>> 16 == 0) ? 1 : (v >>> 24 == 0) ? 2 : 3;
+    }
+
+    private static int byteAt(int[] c, int wordBase, int pos) {
+        return (c[wordBase + (pos >>> 2)] >>> ((pos & 3) << 3)) & 0xFF;
+    }
+
+    private static int byteAt(BufferWords c, int wordBase, int pos) {
+        return (c.word(wordBase + (pos >>> 2)) >>> ((pos & 3) << 3)) & 0xFF;
+    }
+
+    @Override
+    public int[] compress(int[] src) {
+        CodecEvents.Compress ev = CodecEvents.beginCompress();
+        if (src == null) throw new IllegalArgumentException("src null");
+        final int n = src.length;
+        final int ctrlBytes = (n + 3) >>> 2;
+        final int blocks = (n + BLOCK - 1) / BLOCK;
+        long dataBytes = 0;
+        for (int v : src) dataBytes += lengthCode(v) + 1;
+        if (dataBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("flux STREAM_VBYTE trop grand: " + dataBytes + " octets (offsets sur 32 bits)");
+
+        final int base = Headers.HEADER_WORDS;
+        final int ctrlBase = base + blocks;
+        final int dataBase = ctrlBase + ((ctrlBytes + 3) >>> 2);
+        int[] out = new int[checkedWords(dataBase + ((dataBytes + 3) >>> 2) + 1)];
+        Headers.write(out, n, CompressionType.STREAM_VBYTE, 0, 0, ctrlBytes, (int) dataBytes);
+
+        final long dataBit = (long) dataBase << 5;
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            if (i % BLOCK == 0) out[base + i / BLOCK] = p;
+            int v = src[i];
+            int code = lengthCode(v);
+            out[ctrlBase + (i >>> 4)] |= code << ((i & 15) << 1); // 16 codes de 2 bits par word
+            BitIO.writeBitsLSB(out, dataBit + ((long) p << 3), (code + 1) << 3, v);
+            p += code + 1;
+        }
+        return CodecEvents.compressed(ev, finish(out));
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        CodecEvents.Decompress ev = CodecEvents.beginDecompress();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        int ctrlBytes = Headers.extraA(compressed);
+        if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
+        final int ctrlBase = base + (n + BLOCK - 1) / BLOCK;
+        final long dataBit = (long) (ctrlBase + ((ctrlBytes + 3) >>> 2)) << 5;
+
+        int p = 0, i = 0;
+        final int fullQuads = n >>> 2;
+        for (int q = 0; q < fullQuads; q++, i += 4) {
+            int c = byteAt(compressed, ctrlBase, q);
+            int lane = c << 2;
+            // Lecture 32 bits non alignée puis masque : le word de garde couvre la fin du flux.
+            dst[i] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[lane]) << 3), 32) & LANE_MASK[c & 3];
+            dst[i + 1] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[lane + 1]) << 3), 32) & LANE_MASK[(c >>> 2) & 3];
+            dst[i + 2] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[lane + 2]) << 3), 32) & LANE_MASK[(c >>> 4) & 3];
+            dst[i + 3] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[lane + 3]) << 3), 32) & LANE_MASK[c >>> 6];
+            p += QUAD_LENGTH[c];
+        }
+        if (i < n) {
+            int c = byteAt(compressed, ctrlBase, fullQuads);
+            for (int j = 0; i < n; j++, i++) {
+                dst[i] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[(c << 2) + j]) << 3), 32)
+                        & LANE_MASK[(c >>> (2 * j)) & 3];
+            }
+        }
+        CodecEvents.decompressed(ev, compressed);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        checkRange(n, from, dst, off, len);
+        if (len > 0) {
+            int ctrlBytes = Headers.extraA(compressed);
+            final int ctrlBase = base + (n + BLOCK - 1) / BLOCK;
+            final long dataBit = (long) (ctrlBase + ((ctrlBytes + 3) >>> 2)) << 5;
+            // Positionnement comme get(from), puis avance quad par quad.
+            int p = compressed[base + from / BLOCK];
+            for (int q = (from / BLOCK) * (BLOCK / 4); q < from >>> 2; q++) p += QUAD_LENGTH[byteAt(compressed, ctrlBase, q)];
+            int c = byteAt(compressed, ctrlBase, from >>> 2);
+            for (int i = from, end = from + len; i < end; i++) {
+                int j = i & 3;
+                if (j == 0 && i != from) {
+                    p += QUAD_LENGTH[c];
+                    c = byteAt(compressed, ctrlBase, i >>> 2);
+                }
+                dst[off++] = BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[(c << 2) + j]) << 3), 32)
+                        & LANE_MASK[(c >>> (2 * j)) & 3];
+            }
+        }
+        CodecEvents.gotRange(ev, compressed, from, len);
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        int base = Headers.checkMagic(compressed);
+        int n = Headers.n(compressed);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int ctrlBytes = Headers.extraA(compressed);
+        final int ctrlBase = base + (n + BLOCK - 1) / BLOCK;
+        final long dataBit = (long) (ctrlBase + ((ctrlBytes + 3) >>> 2)) << 5;
+
+        int p = compressed[base + index / BLOCK];
+        int quad = index >>> 2;
+        for (int q = (index / BLOCK) * (BLOCK / 4); q < quad; q++) p += QUAD_LENGTH[byteAt(compressed, ctrlBase, q)];
+        int c = byteAt(compressed, ctrlBase, quad);
+        int j = index & 3;
+        return BitIO.readBitsLSB(compressed, dataBit + ((long) (p + LANE_OFFSET[(c << 2) + j]) << 3), 32)
+                & LANE_MASK[(c >>> (2 * j)) & 3];
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        checkRange(n, from, dst, off, len);
+        if (len > 0) {
+            int ctrlBytes = Headers.extraA(w);
+            final int ctrlBase = base + (n + BLOCK - 1) / BLOCK;
+            final long dataBit = (long) (ctrlBase + ((ctrlBytes + 3) >>> 2)) << 5;
+            int p = w.word(base + from / BLOCK);
+            for (int q = (from / BLOCK) * (BLOCK / 4); q < from >>> 2; q++) p += QUAD_LENGTH[byteAt(w, ctrlBase, q)];
+            int c = byteAt(w, ctrlBase, from >>> 2);
+            for (int i = from, end = from + len; i < end; i++) {
+                int j = i & 3;
+                if (j == 0 && i != from) {
+                    p += QUAD_LENGTH[c];
+                    c = byteAt(w, ctrlBase, i >>> 2);
+                }
+                dst[off++] = BitIO.readBitsLSB(w, dataBit + ((long) (p + LANE_OFFSET[(c << 2) + j]) << 3), 32)
+                        & LANE_MASK[(c >>> (2 * j)) & 3];
+            }
+        }
+        CodecEvents.gotRange(ev, w, from, len);
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        BufferWords w = new BufferWords(compressed);
+        int base = Headers.checkMagic(w);
+        int n = Headers.n(w);
+        if (index < 0 || index >= n) throw new IndexOutOfBoundsException();
+        int ctrlBytes = Headers.extraA(w);
+        final int ctrlBase = base + (n + BLOCK - 1) / BLOCK;
+        final long dataBit = (long) (ctrlBase + ((ctrlBytes + 3) >>> 2)) << 5;
+
+        int p = w.word(base + index / BLOCK);
+        int quad = index >>> 2;
+        for (int q = (index / BLOCK) * (BLOCK / 4); q < quad; q++) p += QUAD_LENGTH[byteAt(w, ctrlBase, q)];
+        int c = byteAt(w, ctrlBase, quad);
+        int j = index & 3;
+        return BitIO.readBitsLSB(w, dataBit + ((long) (p + LANE_OFFSET[(c << 2) + j]) << 3), 32)
+                & LANE_MASK[(c >>> (2 * j)) & 3];
+    }
+}
@@ -0,0 +1,177 @@
+package io.compress.intpack;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Cache de blocs décodés devant un buffer compressé ou un ChunkContainer.
+ * Un accès get(i) décode tout le bloc qui contient i (plage décodée séquentiellement
+ * via IntCompressor.decompress(compressed, from, dst, off, len), ou chunk complet pour
+ * un conteneur) et le garde en int[] : les accès suivants dans la zone chaude ne
+ * coûtent plus qu'une lecture de tableau.
+ *
+ * Éviction LRU bornée en nombre de valeurs mises en cache. Le cache est découpé en
+ * STRIPES segments indépendants (LinkedHashMap en ordre d'accès, un verrou chacun),
+ * pour que des lecteurs concurrents sur des blocs différents ne se bloquent pas.
+ * Chaque segment évince d'abord ses propres blocs au-delà de maxCachedValues / STRIPES ;
+ * si le total dépasse encore maxCachedValues (gros blocs, petit budget), les autres
+ * segments sont vidés de leurs blocs les plus anciens jusqu'à repasser sous la borne.
+ * Un bloc plus grand que maxCachedValues n'est jamais mis en cache. La borne globale
+ * est rétablie à la fin de chaque insertion ; des insertions concurrentes peuvent la
+ * dépasser transitoirement d'au plus un bloc chacune.
+ * Le décodage a lieu hors verrou : deux lecteurs peuvent décoder le même bloc en
+ * même temps, le premier inséré est conservé.
+ *
+ * Compteurs hits/misses/evictions en LongAdder (pas de contention entre threads).
+ */
+public final class BlockCache {
+    static final int STRIPES = 16;
+
+    /** Découpage de la source en blocs. */
+    private interface Blocks {
+        long size();
+        long blockOf(long index);
+        long blockStart(long block);
+        int[] load(long block) throws IOException;
+    }
+
+    private static final class Stripe {
+        final LinkedHashMap<Long, int[]> map = new LinkedHashMap<>(16, 0.75f, true);
+        long values;
+    }
+
+    private final Blocks blocks;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long maxCachedValues;
+    private final long stripeBudget;
+    private final AtomicLong cached = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private BlockCache(Blocks blocks, long maxCachedValues) {
+        if (maxCachedValues <= 0) throw new IllegalArgumentException("maxCachedValues doit être > 0");
+        this.blocks = blocks;
+        this.maxCachedValues = maxCachedValues;
+        this.stripeBudget = Math.max(1, maxCachedValues / STRIPES);
+        for (int s = 0; s < STRIPES; s++) stripes[s] = new Stripe();
+    }
+
+    /**
+     * Cache devant un buffer int[] compressé, découpé en blocs de blockSize valeurs.
+     * maxCachedValues borne le nombre total de valeurs décodées conservées.
+     */
+    public static BlockCache forBuffer(int[] compressed, int blockSize, long maxCachedValues) {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize doit être > 0");
+        final IntCompressor codec = CompressorFactory.create(Headers.mode(compressed), null);
+        final int n = Headers.n(compressed);
+        return new BlockCache(new Blocks() {
+            public long size() { return n; }
+            public long blockOf(long index) { return index / blockSize; }
+            public long blockStart(long block) { return block * blockSize; }
+            public int[] load(long block) {
+                int from = (int) (block * blockSize);
+                int[] out = new int[Math.min(blockSize, n - from)];
+                codec.decompress(compressed, from, out, 0, out.length);
+                return out;
+            }
+        }, maxCachedValues);
+    }
+
+    /** Cache devant un conteneur : un bloc = un chunk. */
+    public static BlockCache forContainer(ChunkContainer.Reader reader, long maxCachedValues) {
+        return new BlockCache(new Blocks() {
+            public long size() { return reader.size(); }
+            public long blockOf(long index) { return reader.chunkOf(index); }
+            public long blockStart(long block) { return reader.chunk((int) block).firstIndex(); }
+            public int[] load(long block) throws IOException { return reader.readChunk((int) block); }
+        }, maxCachedValues);
+    }
+
+    public long size() { return blocks.size(); }
+
+    public int get(long index) {
+        if (index < 0 || index >= blocks.size()) throw new IndexOutOfBoundsException();
+        long block = blocks.blockOf(index);
+        return block(block)[(int) (index - blocks.blockStart(block))];
+    }
+
+    private int[] block(long block) {
+        int s = stripeOf(block);
+        Stripe stripe = stripes[s];
+        Long key = block;
+        int[] values;
+        synchronized (stripe) {
+            values = stripe.map.get(key);
+        }
+        if (values != null) {
+            hits.increment();
+            return values;
+        }
+        misses.increment();
+        try {
+            values = blocks.load(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (values.length > maxCachedValues) return values; // ne tiendrait jamais dans le budget
+        synchronized (stripe) {
+            int[] raced = stripe.map.putIfAbsent(key, values);
+            if (raced != null) return raced;
+            stripe.values += values.length;
+            cached.addAndGet(values.length);
+            // Le bloc qu'on vient d'insérer est le plus récent : on ne l'évince jamais ici.
+            while (stripe.values > stripeBudget && stripe.map.size() > 1) evictEldest(stripe);
+        }
+        // Borne globale : segments suivants d'abord, celui du bloc inséré en dernier.
+        for (int i = 1; i <= STRIPES && cached.get() > maxCachedValues; i++) {
+            Stripe other = stripes[(s + i) & (STRIPES - 1)];
+            synchronized (other) {
+                while (cached.get() > maxCachedValues && !other.map.isEmpty()) evictEldest(other);
+            }
+        }
+        return values;
+    }
+
+    // Évince le bloc le moins récemment utilisé de stripe (verrou tenu, stripe non vide).
+    private void evictEldest(Stripe stripe) {
+        Iterator<Map.Entry<Long, int[]>> it = stripe.map.entrySet().iterator();
+        int[] old = it.next().getValue();
+        it.remove();
+        stripe.values -= old.length;
+        cached.addAndGet(-old.length);
+        evictions.increment();
+    }
+
+    private static int stripeOf(long block) {
+        long h = block * 0x9E3779B97F4A7C15L; // mélange : blocs voisins sur des segments différents
+        return (int) (h >>> 60) & (STRIPES - 1);
+    }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    /** Nombre de valeurs décodées actuellement en cache. */
+    public long cachedValues() {
+        return cached.get();
+    }
+
+    public void clear() {
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                s.map.clear();
+                cached.addAndGet(-s.values);
+                s.values = 0;
+            }
+        }
+    }
+}
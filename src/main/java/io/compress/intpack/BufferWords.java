@@ -0,0 +1,53 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+
+/**
+ * Vue en words 32 bits d'un ByteBuffer (heap ou direct) contenant un buffer compressé.
+ * Le buffer compressé commence à position() et s'étend jusqu'à limit() ; les words sont
+ * little-endian (IntCompressor.BYTE_ORDER), quel que soit l'ordre du ByteBuffer appelant,
+ * dont ni la position ni l'ordre ne sont modifiés.
+ *
+ * Sert aux chemins get() et decompress() sur ByteBuffer : lecture absolue word par word,
+ * sans copie.
+ */
+final class BufferWords {
+    private final ByteBuffer buf;
+    private final int base;
+
+    BufferWords(ByteBuffer b) {
+        this.buf = (b.order() == IntCompressor.BYTE_ORDER) ? b : b.duplicate().order(IntCompressor.BYTE_ORDER);
+        this.base = b.position();
+    }
+
+    int word(int i) { return buf.getInt(base + (i << 2)); }
+
+    int length() { return (buf.limit() - base) >>> 2; }
+
+    /** Écrit words à dst.position() (little-endian) et avance la position. */
+    static void write(ByteBuffer dst, int[] words) {
+        int bytes = words.length << 2;
+        if (dst.remaining() < bytes) throw new IllegalArgumentException("dst trop petit");
+        dst.duplicate().order(IntCompressor.BYTE_ORDER).asIntBuffer().put(words);
+        dst.position(dst.position() + bytes);
+    }
+
+    /**
+     * Vue IntBuffer little-endian de n valeurs à dst.position() (position de dst inchangée),
+     * pour écrire des valeurs décodées dans un ByteBuffer destination.
+     */
+    static IntBuffer values(ByteBuffer dst, int n) {
+        if (dst.remaining() < ((long) n << 2)) throw new IllegalArgumentException("dst trop petit");
+        return dst.duplicate().order(IntCompressor.BYTE_ORDER).asIntBuffer();
+    }
+
+    /** Copie en bloc [position, limit) dans un int[] (la position n'est pas modifiée). */
+    static int[] toArray(ByteBuffer src) {
+        int[] words = new int[src.remaining() >>> 2];
+        src.duplicate().order(IntCompressor.BYTE_ORDER).asIntBuffer().get(words);
+        return words;
+    }
+}
@@ -0,0 +1,323 @@
+package io.compress.intpack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Fichier conteneur de chunks compressés indépendamment, avec index en pied de fichier.
+ * Chaque chunk est un buffer compressé complet (variante et k dans son propre header) ;
+ * le footer donne pour chaque chunk son offset, sa taille, l'indice global de sa première
+ * valeur, son nombre de valeurs et sa plage [min, max]. Un lecteur ne charge que les
+ * chunks qui couvrent la plage demandée ; un writer ajoute des chunks sans réécrire
+ * les précédents.
+ *
+ * Format (little-endian, comme les surcharges ByteBuffer de IntCompressor) :
+ *   [int MAGIC][int VERSION][long footerOffset]
+ *   chunk 0 .. chunk c-1          (words du buffer compressé)
+ *   footer à footerOffset :       [int c] c x ENTRY_BYTES :
+ *                                 [long offset][int bytes][long first][int count][int min][int max][int mode|k<<8]
+ *
+ * Le fichier n'est jamais sans index valide : les nouveaux chunks sont écrits après le
+ * footer courant (qui n'est jamais écrasé), puis commit() écrit un nouveau footer à la
+ * suite, le force sur disque et seulement ensuite met à jour footerOffset dans le
+ * préambule (8 octets alignés, écrits d'un bloc). Un writer interrompu avant commit()
+ * laisse donc l'ancien footer en place et tous les chunks déjà publiés lisibles ; les
+ * octets qui suivent sont ignorés, puis tronqués par la prochaine fermeture.
+ * Chaque commit() laisse l'ancien footer comme espace mort (4 + 36 octets par chunk) :
+ * committer par lots plutôt qu'à chaque chunk si les ajouts sont nombreux.
+ */
+public final class ChunkContainer {
+    static final int MAGIC = 0x544E4349; // "ICNT" en little-endian
+    static final int VERSION = 2; // 2 : footerOffset dans le préambule
+    static final int PREAMBLE_BYTES = 16;
+    static final int FOOTER_OFFSET_POS = 8;
+    static final int ENTRY_BYTES = 36;
+
+    private ChunkContainer() {}
+
+    /** Description d'un chunk telle que stockée dans le footer. */
+    public record ChunkInfo(long offset, int bytes, long firstIndex, int count, int min, int max,
+                            CompressionType type, int k) {
+        public long endIndex() { return firstIndex + count; }
+    }
+
+    /** Crée (ou écrase) un conteneur vide. */
+    public static Writer create(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer pre = ByteBuffer.allocate(PREAMBLE_BYTES + 4).order(IntCompressor.BYTE_ORDER);
+            pre.putInt(MAGIC).putInt(VERSION).putLong(PREAMBLE_BYTES).putInt(0).flip(); // footer vide
+            writeFully(ch, pre, 0);
+            ch.force(true);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        return new Writer(ch, new ArrayList<>(), PREAMBLE_BYTES + 4);
+    }
+
+    /** Rouvre un conteneur existant pour y ajouter des chunks (créé s'il n'existe pas). */
+    public static Writer append(Path path) throws IOException {
+        if (!Files.exists(path)) return create(path);
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        try {
+            Footer f = readFooter(ch);
+            return new Writer(ch, new ArrayList<>(List.of(f.chunks)), f.end());
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    public static Reader open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new Reader(ch, readFooter(ch).chunks);
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writer : chaque append compresse un chunk et l'écrit immédiatement après les
+     * données existantes ; commit() (appelé par close()) publie le nouveau footer.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final FileChannel ch;
+        private final List<ChunkInfo> chunks;
+        private long position;
+        private long totalValues;
+        private boolean dirty;
+
+        private Writer(FileChannel ch, List<ChunkInfo> chunks, long position) {
+            this.ch = ch;
+            this.chunks = chunks;
+            this.position = position;
+            for (ChunkInfo c : chunks) totalValues += c.count();
+        }
+
+        public ChunkInfo append(int[] values, CompressionType type) throws IOException {
+            return append(values, type, null);
+        }
+
+        public ChunkInfo append(int[] values, CompressionType type, CompressorFactory.Options opts) throws IOException {
+            if (!ch.isOpen()) throw new IllegalStateException("writer fermé");
+            int[] comp = CompressorFactory.create(type, opts).compress(values);
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int v : values) {
+                if (v < min) min = v;
+                if (v > max) max = v;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(comp.length << 2);
+            BufferWords.write(buf, comp);
+            buf.flip();
+            writeFully(ch, buf, position);
+            ChunkInfo info = new ChunkInfo(position, comp.length << 2, totalValues, values.length,
+                    min, max, type, Headers.k(comp));
+            chunks.add(info);
+            position += info.bytes();
+            totalValues += values.length;
+            dirty = true;
+            return info;
+        }
+
+        public int chunkCount() { return chunks.size(); }
+
+        public long size() { return totalValues; }
+
+        /**
+         * Rend les chunks ajoutés visibles des lecteurs : footer écrit après les données
+         * et forcé sur disque, puis bascule de footerOffset dans le préambule.
+         */
+        public void commit() throws IOException {
+            if (!ch.isOpen()) throw new IllegalStateException("writer fermé");
+            if (!dirty) return;
+            ByteBuffer f = ByteBuffer.allocate(4 + chunks.size() * ENTRY_BYTES).order(IntCompressor.BYTE_ORDER);
+            f.putInt(chunks.size());
+            for (ChunkInfo c : chunks) {
+                f.putLong(c.offset()).putInt(c.bytes()).putLong(c.firstIndex()).putInt(c.count())
+                        .putInt(c.min()).putInt(c.max()).putInt(c.type().ordinal() | (c.k() << 8));
+            }
+            f.flip();
+            writeFully(ch, f, position);
+            ch.force(false);
+            ByteBuffer off = ByteBuffer.allocate(8).order(IntCompressor.BYTE_ORDER);
+            off.putLong(position).flip();
+            writeFully(ch, off, FOOTER_OFFSET_POS);
+            ch.force(false);
+            position += f.limit();
+            dirty = false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!ch.isOpen()) return;
+            try {
+                commit();
+                ch.truncate(position); // restes éventuels d'un writer interrompu
+                ch.force(true);
+            } finally {
+                ch.close();
+            }
+        }
+    }
+
+    /**
+     * Reader : les chunks sont mappés en mémoire à la demande ; get() lit directement
+     * dans le mapping (seules les pages touchées sont chargées), read() ne décode que
+     * les chunks qui intersectent la plage demandée. Thread-safe.
+     */
+    public static final class Reader implements AutoCloseable {
+        private final FileChannel ch;
+        private final ChunkInfo[] chunks;
+        private final long[] firsts;
+        private final IntCompressor[] codecs;
+        private final AtomicReferenceArray<ByteBuffer> maps;
+        private final long size;
+
+        private Reader(FileChannel ch, ChunkInfo[] chunks) {
+            this.ch = ch;
+            this.chunks = chunks;
+            this.firsts = new long[chunks.length];
+            this.codecs = new IntCompressor[chunks.length];
+            this.maps = new AtomicReferenceArray<>(chunks.length);
+            long total = 0;
+            for (int i = 0; i < chunks.length; i++) {
+                firsts[i] = chunks[i].firstIndex();
+                codecs[i] = CompressorFactory.create(chunks[i].type(), null);
+                total += chunks[i].count();
+            }
+            this.size = total;
+        }
+
+        /** Nombre total de valeurs. */
+        public long size() { return size; }
+
+        public int chunkCount() { return chunks.length; }
+
+        public ChunkInfo chunk(int i) { return chunks[i]; }
+
+        public List<ChunkInfo> chunks() { return List.of(chunks); }
+
+        /** Indice du chunk contenant la valeur d'indice global index. */
+        public int chunkOf(long index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+            int lo = 0, hi = chunks.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (firsts[mid] <= index) lo = mid; else hi = mid - 1;
+            }
+            return lo;
+        }
+
+        public int get(long index) throws IOException {
+            int c = chunkOf(index);
+            return codecs[c].get(buffer(c), (int) (index - firsts[c]));
+        }
+
+        /** Décode un chunk complet. */
+        public int[] readChunk(int c) throws IOException {
+            int[] out = new int[chunks[c].count()];
+            codecs[c].decompress(buffer(c), out);
+            return out;
+        }
+
+        /**
+         * Copie les valeurs [from, from+len) dans dst[off..]. Seule la partie de chaque chunk
+         * qui recoupe la plage est décodée (decompress de plage), lue directement dans le
+         * mapping et écrite directement dans dst.
+         */
+        public void read(long from, int[] dst, int off, int len) throws IOException {
+            if (len == 0) return;
+            if (from < 0 || len < 0 || from + len > size) throw new IndexOutOfBoundsException();
+            if (off < 0 || off > dst.length - len) throw new IllegalArgumentException("dst trop petit");
+            int c = chunkOf(from);
+            while (len > 0) {
+                ChunkInfo info = chunks[c];
+                int start = (int) (from - info.firstIndex());
+                int n = Math.min(len, info.count() - start);
+                codecs[c].decompress(buffer(c), start, dst, off, n);
+                from += n; off += n; len -= n;
+                c++;
+            }
+        }
+
+        private ByteBuffer buffer(int c) throws IOException {
+            ByteBuffer b = maps.get(c);
+            if (b == null) {
+                ChunkInfo info = chunks[c];
+                b = ch.map(FileChannel.MapMode.READ_ONLY, info.offset(), info.bytes()).order(IntCompressor.BYTE_ORDER);
+                if (!maps.compareAndSet(c, null, b)) b = maps.get(c);
+            }
+            return b;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+
+    // --- footer ---
+
+    private record Footer(ChunkInfo[] chunks, long footerOffset) {
+        /** Premier octet après le footer : les ajouts commencent là. */
+        long end() { return footerOffset + 4 + (long) chunks.length * ENTRY_BYTES; }
+    }
+
+    private static Footer readFooter(FileChannel ch) throws IOException {
+        long fileSize = ch.size();
+        if (fileSize < PREAMBLE_BYTES + 4) throw new IOException("conteneur tronqué");
+        ByteBuffer pre = readFully(ch, 0, PREAMBLE_BYTES);
+        if (pre.getInt() != MAGIC) throw new IOException("magic de conteneur invalide");
+        if (pre.getInt() != VERSION) throw new IOException("version de conteneur non supportée");
+        long footerOffset = pre.getLong();
+        if (footerOffset < PREAMBLE_BYTES || footerOffset > fileSize - 4) throw new IOException("footer de conteneur invalide");
+        int count = readFully(ch, footerOffset, 4).getInt();
+        if (count < 0 || (long) count * ENTRY_BYTES > Integer.MAX_VALUE || footerOffset + 4 + (long) count * ENTRY_BYTES > fileSize)
+            throw new IOException("footer de conteneur invalide");
+        ByteBuffer f = readFully(ch, footerOffset + 4, count * ENTRY_BYTES);
+        CompressionType[] modes = CompressionType.values();
+        ChunkInfo[] chunks = new ChunkInfo[count];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long offset = f.getLong();
+            int bytes = f.getInt();
+            long first = f.getLong();
+            int n = f.getInt();
+            int min = f.getInt();
+            int max = f.getInt();
+            int modeK = f.getInt();
+            if ((modeK & 0xFF) >= modes.length) throw new IOException("variante inconnue dans le footer: " + (modeK & 0xFF));
+            if (offset < PREAMBLE_BYTES || bytes < 0 || n < 0 || offset + bytes > footerOffset)
+                throw new IOException("entrée de footer invalide: chunk " + i);
+            // chunkOf() fait une dichotomie sur firstIndex : les indices doivent se suivre.
+            if (first != total) throw new IOException("indices de chunks non contigus: chunk " + i + " commence à " + first + ", attendu " + total);
+            total += n;
+            chunks[i] = new ChunkInfo(offset, bytes, first, n, min, max, modes[modeK & 0xFF], (modeK >>> 8) & 0xFF);
+        }
+        return new Footer(chunks, footerOffset);
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long pos, int len) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(len).order(IntCompressor.BYTE_ORDER);
+        while (b.hasRemaining()) {
+            if (ch.read(b, pos + b.position()) < 0) throw new IOException("fin de fichier inattendue");
+        }
+        return b.flip();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer b, long pos) throws IOException {
+        while (b.hasRemaining()) ch.write(b, pos + b.position());
+    }
+}
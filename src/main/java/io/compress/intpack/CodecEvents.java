@@ -0,0 +1,139 @@
+package io.compress.intpack;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Événements Java Flight Recorder des codecs, désactivés par défaut (@Enabled(false)).
+ * À activer dans un fichier .jfc ou par
+ * -XX:StartFlightRecording:settings=profile,+io.compress.intpack.Compress#enabled=true ...
+ *
+ * Désactivé, un événement coûte un begin() et un shouldCommit() qui renvoient
+ * immédiatement ; l'objet événement ne s'échappe pas et est éliminé par le JIT.
+ * Les champs (lecture du header) ne sont renseignés que si shouldCommit() est vrai.
+ */
+final class CodecEvents {
+    private CodecEvents() {}
+
+    @Name("io.compress.intpack.Compress")
+    @Label("Int Compress")
+    @Category({"Int Compression"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Compress extends Event {
+        @Label("Variant") String variant;
+        @Label("Values") int n;
+        @Label("k") int k;
+        @Label("Output Words") int words;
+        @Label("Overflow Values") int overflow;
+    }
+
+    @Name("io.compress.intpack.Decompress")
+    @Label("Int Decompress")
+    @Category({"Int Compression"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Decompress extends Event {
+        @Label("Variant") String variant;
+        @Label("Values") int n;
+        @Label("k") int k;
+        @Label("Input Words") int words;
+    }
+
+    @Name("io.compress.intpack.GetRange")
+    @Label("Int Bulk Get")
+    @Description("Décodage d'une plage [from, from+len) sans décompression complète")
+    @Category({"Int Compression"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class GetRange extends Event {
+        @Label("Variant") String variant;
+        @Label("From") int from;
+        @Label("Values") int n;
+        @Label("k") int k;
+    }
+
+    @Name("io.compress.intpack.OverflowPlan")
+    @Label("Overflow Plan")
+    @Description("Choix de kSmall par BitPackingOverflow.plan")
+    @Category({"Int Compression"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class OverflowPlan extends Event {
+        @Label("Values") int n;
+        @Label("k") int k;
+        @Label("Payload Bits") int payloadBits;
+        @Label("Overflow Values") int overflow;
+    }
+
+    static Compress beginCompress() {
+        Compress e = new Compress();
+        e.begin();
+        return e;
+    }
+
+    /** Termine l'événement de compress et renvoie out (à utiliser dans le return). */
+    static int[] compressed(Compress e, int[] out) {
+        e.end();
+        if (e.shouldCommit()) {
+            e.variant = Headers.mode(out).name();
+            e.n = Headers.n(out);
+            e.k = Headers.k(out);
+            e.words = out.length;
+            e.overflow = Headers.overflow(out);
+            e.commit();
+        }
+        return out;
+    }
+
+    static Decompress beginDecompress() {
+        Decompress e = new Decompress();
+        e.begin();
+        return e;
+    }
+
+    static void decompressed(Decompress e, int[] compressed) {
+        e.end();
+        if (e.shouldCommit()) {
+            e.variant = Headers.mode(compressed).name();
+            e.n = Headers.n(compressed);
+            e.k = Headers.k(compressed);
+            e.words = compressed.length;
+            e.commit();
+        }
+    }
+
+    static GetRange beginGetRange() {
+        GetRange e = new GetRange();
+        e.begin();
+        return e;
+    }
+
+    static void gotRange(GetRange e, BufferWords compressed, int from, int len) {
+        e.end();
+        if (e.shouldCommit()) {
+            e.variant = Headers.mode(compressed).name();
+            e.from = from;
+            e.n = len;
+            e.k = Headers.k(compressed);
+            e.commit();
+        }
+    }
+
+    static void gotRange(GetRange e, int[] compressed, int from, int len) {
+        e.end();
+        if (e.shouldCommit()) {
+            e.variant = Headers.mode(compressed).name();
+            e.from = from;
+            e.n = len;
+            e.k = Headers.k(compressed);
+            e.commit();
+        }
+    }
+}
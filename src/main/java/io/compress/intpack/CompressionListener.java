@@ -0,0 +1,27 @@
+package io.compress.intpack;
+
+
+/**
+ * Observateur optionnel des appels de compression / décompression
+ * (voir CompressorFactory.Options.listener).
+ *
+ * Sans listener, la fabrique renvoie le compresseur nu : aucun coût.
+ * Avec un listener, chaque compress/decompress est chronométré (System.nanoTime)
+ * et notifié ; get(i) n'est pas instrumenté, son coût unitaire étant du même ordre
+ * que celui de la mesure. Les implémentations doivent être thread-safe et rapides
+ * (elles s'exécutent dans le thread appelant).
+ */
+public interface CompressionListener {
+
+    /**
+     * Appelé après chaque compress.
+     * @param values   nombre de valeurs en entrée
+     * @param words    nombre de words produits (header compris)
+     * @param k        k retenu (0 pour les variantes sans largeur commune)
+     * @param overflow nombre de valeurs envoyées en zone d'overflow (0 hors OVERFLOW / OVERFLOW_RANK)
+     */
+    default void compressed(CompressionType type, int values, int words, int k, int overflow, long nanos) {}
+
+    /** Appelé après chaque décompression (complète ou de plage). */
+    default void decompressed(CompressionType type, int values, long nanos) {}
+}
@@ -0,0 +1,189 @@
+package io.compress.intpack;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * CompressionListener qui agrège les appels dans des compteurs LongAdder
+ * (striped : pas de contention entre threads, enregistrement en quelques ns),
+ * globalement et par variante, avec histogrammes de k et de latence (buckets log2).
+ * Exposable en JMX via register(name), pour suivre en production la dérive des
+ * données (bits/valeur ou overflow qui montent pour une variante donnée).
+ *
+ * Usage : opts.listener = metrics ; CompressorFactory.create(type, opts).
+ */
+public final class CompressionMetrics implements CompressionListener, CompressionMetricsMBean {
+    static final String DOMAIN = "io.compress.intpack";
+    static final int LATENCY_BUCKETS = 40; // au-delà de 2^39 ns (~9 min) : dernier bucket
+
+    private static final CompressionType[] TYPES = CompressionType.values();
+
+    /** Compteurs d'une variante (ou du total). */
+    private static final class Counters {
+        final LongAdder compressCalls = new LongAdder();
+        final LongAdder decompressCalls = new LongAdder();
+        final LongAdder valuesIn = new LongAdder();
+        final LongAdder valuesOut = new LongAdder();
+        final LongAdder words = new LongAdder();
+        final LongAdder overflow = new LongAdder();
+        final LongAdder compressNanos = new LongAdder();
+        final LongAdder decompressNanos = new LongAdder();
+
+        void compressed(int values, int words, int overflow, long nanos) {
+            compressCalls.increment();
+            valuesIn.add(values);
+            this.words.add(words);
+            compressNanos.add(nanos);
+            if (overflow != 0) this.overflow.add(overflow);
+        }
+
+        void decompressed(int values, long nanos) {
+            decompressCalls.increment();
+            valuesOut.add(values);
+            decompressNanos.add(nanos);
+        }
+
+        void reset() {
+            for (LongAdder a : new LongAdder[]{compressCalls, decompressCalls, valuesIn, valuesOut,
+                    words, overflow, compressNanos, decompressNanos}) a.reset();
+        }
+    }
+
+    private final Counters total = new Counters();
+    private final Counters[] byType = new Counters[TYPES.length];
+    private final LongAdder[] kHistogram = adders(33);
+    private final LongAdder[] compressLatency = adders(LATENCY_BUCKETS);
+    private final LongAdder[] decompressLatency = adders(LATENCY_BUCKETS);
+    private volatile ObjectName registered;
+
+    public CompressionMetrics() {
+        for (int i = 0; i < byType.length; i++) byType[i] = new Counters();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] a = new LongAdder[count];
+        for (int i = 0; i < count; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    private static int latencyBucket(long nanos) {
+        int b = 63 - Long.numberOfLeadingZeros(Math.max(1, nanos));
+        return Math.min(b, LATENCY_BUCKETS - 1);
+    }
+
+    private static long[] sums(LongAdder[] a) {
+        long[] out = new long[a.length];
+        for (int i = 0; i < a.length; i++) out[i] = a[i].sum();
+        return out;
+    }
+
+    // --- CompressionListener ---
+
+    @Override
+    public void compressed(CompressionType type, int values, int words, int k, int overflow, long nanos) {
+        total.compressed(values, words, overflow, nanos);
+        byType[type.ordinal()].compressed(values, words, overflow, nanos);
+        kHistogram[Math.min(Math.max(k, 0), 32)].increment();
+        compressLatency[latencyBucket(nanos)].increment();
+    }
+
+    @Override
+    public void decompressed(CompressionType type, int values, long nanos) {
+        total.decompressed(values, nanos);
+        byType[type.ordinal()].decompressed(values, nanos);
+        decompressLatency[latencyBucket(nanos)].increment();
+    }
+
+    // --- lecture ---
+
+    @Override public long getCompressCalls() { return total.compressCalls.sum(); }
+    @Override public long getDecompressCalls() { return total.decompressCalls.sum(); }
+    @Override public long getValuesCompressed() { return total.valuesIn.sum(); }
+    @Override public long getValuesDecompressed() { return total.valuesOut.sum(); }
+    @Override public long getWordsProduced() { return total.words.sum(); }
+    @Override public long getOverflowValues() { return total.overflow.sum(); }
+    @Override public long getCompressNanos() { return total.compressNanos.sum(); }
+    @Override public long getDecompressNanos() { return total.decompressNanos.sum(); }
+
+    @Override
+    public double getBitsPerValue() {
+        return bitsPerValue(total);
+    }
+
+    /** Bits par valeur pour une variante (NaN si aucune compression). */
+    public double bitsPerValue(CompressionType type) {
+        return bitsPerValue(byType[type.ordinal()]);
+    }
+
+    private static double bitsPerValue(Counters c) {
+        long values = c.valuesIn.sum();
+        return values == 0 ? Double.NaN : (c.words.sum() * 32.0) / values;
+    }
+
+    @Override public long[] getKHistogram() { return sums(kHistogram); }
+    @Override public long[] getCompressLatencyHistogram() { return sums(compressLatency); }
+    @Override public long[] getDecompressLatencyHistogram() { return sums(decompressLatency); }
+
+    @Override
+    public String[] getVariantSummary() {
+        List<String> lines = new ArrayList<>();
+        for (CompressionType t : TYPES) {
+            Counters c = byType[t.ordinal()];
+            long calls = c.compressCalls.sum(), dcalls = c.decompressCalls.sum();
+            if (calls == 0 && dcalls == 0) continue;
+            lines.add(String.format(Locale.ROOT,
+                    "%s compress=%d values=%d bits/value=%.3f overflow=%d avg_compress_us=%.3f decompress=%d avg_decompress_us=%.3f",
+                    t, calls, c.valuesIn.sum(), bitsPerValue(c), c.overflow.sum(),
+                    calls == 0 ? 0.0 : c.compressNanos.sum() / 1e3 / calls,
+                    dcalls, dcalls == 0 ? 0.0 : c.decompressNanos.sum() / 1e3 / dcalls));
+        }
+        return lines.toArray(new String[0]);
+    }
+
+    @Override
+    public void reset() {
+        total.reset();
+        for (Counters c : byType) c.reset();
+        for (LongAdder[] h : new LongAdder[][]{kHistogram, compressLatency, decompressLatency}) {
+            for (LongAdder a : h) a.reset();
+        }
+    }
+
+    // --- JMX ---
+
+    /**
+     * Enregistre ces métriques dans le MBeanServer de la plateforme sous
+     * io.compress.intpack:type=CompressionMetrics,name=&lt;name&gt;.
+     */
+    public synchronized ObjectName register(String name) {
+        if (registered != null) throw new IllegalStateException("déjà enregistré : " + registered);
+        try {
+            ObjectName on = new ObjectName(DOMAIN + ":type=CompressionMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            registered = on;
+            return on;
+        } catch (JMException e) {
+            throw new IllegalStateException("enregistrement JMX impossible", e);
+        }
+    }
+
+    public synchronized void unregister() {
+        ObjectName on = registered;
+        if (on == null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(on)) server.unregisterMBean(on);
+        } catch (JMException e) {
+            throw new IllegalStateException("désenregistrement JMX impossible", e);
+        } finally {
+            registered = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.compress.intpack;
+
+
+/**
+ * Interface JMX (standard MBean) de CompressionMetrics.
+ * Histogrammes : getKHistogram()[k] = nombre de compress ayant retenu k ;
+ * get*LatencyHistogram()[b] = nombre d'appels de durée dans [2^b, 2^(b+1)) ns.
+ */
+public interface CompressionMetricsMBean {
+    long getCompressCalls();
+    long getDecompressCalls();
+    long getValuesCompressed();
+    long getValuesDecompressed();
+    long getWordsProduced();
+    long getOverflowValues();
+    long getCompressNanos();
+    long getDecompressNanos();
+    /** Bits par valeur sur l'ensemble des compress (header compris). */
+    double getBitsPerValue();
+    long[] getKHistogram();
+    long[] getCompressLatencyHistogram();
+    long[] getDecompressLatencyHistogram();
+    /** Une ligne par variante utilisée : appels, valeurs, bits/valeur, overflow, temps moyen. */
+    String[] getVariantSummary();
+    void reset();
+}
@@ -4,5 +4,11 @@ package io.compress.intpack;
 public enum CompressionType {
 CROSSING, // valeurs peuvent chevaucher deux mots int
 NO_CROSSING, // valeurs n’empiètent pas (trous en fin de mot)
-OVERFLOW // drapeau + payload + zone overflow
+OVERFLOW, // drapeau + payload + zone overflow
+ELIAS_FANO, // suites non décroissantes : bits bas packés + bits hauts en unaire
+DICTIONARY, // table des valeurs distinctes + codes packés (faible cardinalité)
+RLE, // runs : valeurs + fins cumulées packées, get par dichotomie
+STREAM_VBYTE, // 1 à 4 octets par valeur, octets de contrôle séparés (décodage rapide)
+SIMPLE8B, // words 64 bits avec sélecteur : largeur adaptée word par word
+OVERFLOW_RANK // valeurs sur k bits + bitmap d'exceptions avec répertoire de rang
 }
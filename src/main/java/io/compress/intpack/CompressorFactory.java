@@ -18,6 +18,16 @@ public boolean fixedKForOverflow = false;
 * true = LSB-first (bit 0 = LSB de word 0). false = MSB-first.
 */
 public boolean lsbFirst = true;
+/**
+* Observateur des appels (ex: CompressionMetrics). Si null (défaut), le compresseur
+* renvoyé n'est pas instrumenté et ne paie aucun surcoût.
+*/
+public CompressionListener listener = null;
+/**
+* Header compact (1 à 2 words au lieu de 5, voir Headers) : utile pour les petits
+* tableaux, où le header standard pèse plus que les données. Lecture transparente.
+*/
+public boolean compactHeader = false;
 }
 
 
@@ -26,10 +36,34 @@ private CompressorFactory() {}
 
 public static IntCompressor create(CompressionType type, Options opts) {
 if (opts == null) opts = new Options();
+IntCompressor c = createRaw(type, opts);
+return (opts.listener == null) ? c : new InstrumentedCompressor(c, type, opts.listener);
+}
+
+
+/** Variante d'un buffer compressé (lue dans son header, standard ou compact). */
+public static CompressionType typeOf(int[] compressed) {
+return Headers.mode(compressed);
+}
+
+
+/** Nombre de valeurs d'un buffer compressé. */
+public static int sizeOf(int[] compressed) {
+return Headers.n(compressed);
+}
+
+
+private static IntCompressor createRaw(CompressionType type, Options opts) {
 switch (type) {
 case CROSSING: return new BitPackingCrossing(opts);
 case NO_CROSSING: return new BitPackingNoCrossing(opts);
 case OVERFLOW: return new BitPackingOverflow(opts);
+case ELIAS_FANO: return new BitPackingEliasFano(opts);
+case DICTIONARY: return new BitPackingDictionary(opts);
+case RLE: return new BitPackingRle(opts);
+case STREAM_VBYTE: return new BitPackingStreamVByte(opts);
+case SIMPLE8B: return new BitPackingSimple8b(opts);
+case OVERFLOW_RANK: return new BitPackingOverflowRank(opts);
 default: throw new IllegalArgumentException("Unknown type: " + type);
 }
 }
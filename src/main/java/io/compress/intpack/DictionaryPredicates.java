@@ -0,0 +1,71 @@
+package io.compress.intpack;
+
+import java.util.Arrays;
+
+
+/**
+ * Évaluation de prédicats directement sur les codes d'un buffer DICTIONARY.
+ * La table étant triée, lo <= v <= hi équivaut à codeLo <= code < codeHi : on
+ * résout les bornes une fois par dichotomie dans la table, puis on balaye les
+ * codes packés sans jamais reconstituer les valeurs.
+ */
+public final class DictionaryPredicates {
+    private DictionaryPredicates() {}
+
+    /** Nombre d'éléments v tels que lo <= v <= hi. */
+    public static int countInRange(int[] compressed, int lo, int hi) {
+        Codes c = new Codes(compressed, lo, hi);
+        int count = 0;
+        for (int i = 0; i < c.n; i++) if (c.matches(i)) count++;
+        return count;
+    }
+
+    public static int countEquals(int[] compressed, int value) {
+        return countInRange(compressed, value, value);
+    }
+
+    /** Positions (croissantes) des éléments v tels que lo <= v <= hi. */
+    public static int[] selectInRange(int[] compressed, int lo, int hi) {
+        Codes c = new Codes(compressed, lo, hi);
+        int[] tmp = new int[c.n];
+        int size = 0;
+        for (int i = 0; i < c.n; i++) if (c.matches(i)) tmp[size++] = i;
+        return Arrays.copyOf(tmp, size);
+    }
+
+    /** Plage de codes [codeLo, codeHi) correspondant à [lo, hi] sur un buffer DICTIONARY. */
+    private static final class Codes {
+        final int[] buf;
+        final int n, k, codeLo, codeHi;
+        final long codeBase;
+
+        Codes(int[] compressed, int lo, int hi) {
+            if (Headers.mode(compressed) != CompressionType.DICTIONARY)
+                throw new IllegalArgumentException("buffer DICTIONARY attendu");
+            int base = Headers.checkMagic(compressed);
+            int d = Headers.extraA(compressed);
+            this.buf = compressed;
+            this.n = Headers.n(compressed);
+            this.k = Headers.k(compressed);
+            this.codeBase = (long) (base + d) << 5;
+            this.codeLo = firstAtLeast(compressed, base, d, lo, false);
+            this.codeHi = (lo > hi) ? codeLo : firstAtLeast(compressed, base, d, hi, true);
+        }
+
+        boolean matches(int i) {
+            int code = BitIO.readBitsLSB(buf, codeBase + (long) i * k, k);
+            return code >= codeLo && code < codeHi;
+        }
+
+        // Premier rang de la table dont la valeur est >= key (strict=false) ou > key (strict=true).
+        private static int firstAtLeast(int[] c, int base, int d, int key, boolean strict) {
+            int l = 0, h = d;
+            while (l < h) {
+                int mid = (l + h) >>> 1;
+                int v = c[base + mid];
+                if (strict ? v <= key : v < key) l = mid + 1; else h = mid;
+            }
+            return l;
+        }
+    }
+}
@@ -6,43 +6,170 @@ package io.compress.intpack;
 * Layout (en int, simple et robuste) :
 * [0] magic (0x1B1TPACK ~ « bitpack »),
 * [1] n (taille),
-* [2] mode (0=CROSSING,1=NO_CROSSING,2=OVERFLOW) | (k << 8) | (flags << 16)
+* [2] mode (ordinal de CompressionType : 0=CROSSING,1=NO_CROSSING,2=OVERFLOW,...) | (k << 8) | (flags << 16)
 * [3] extraA (ex: payloadBits ou m selon mode)
 * [4] extraB (ex: m pour OVERFLOW)
 * Data débute à l’index HEADER_WORDS.
+*
+* Header compact (Options.compactHeader, pour les petits tableaux) : octets little-endian
+* dans les words, complétés jusqu'au word suivant :
+* [0] 0x0C | (extras << 4)   (le quartet bas 0xC le distingue de MAGIC, dont l'octet bas est 0xA7)
+* [1] mode, [2] k, puis varint n ; si extras : varints flags, extraA, extraB.
+* Sans extras et avec n < 128 le header tient en 1 word (au lieu de 5).
+* Les données suivent au word checkMagic(in) : les variantes lisent toujours leur base
+* via checkMagic, elles fonctionnent donc avec les deux headers.
 */
 final class Headers {
 static final int MAGIC = 0x1B17ECA7; // marker for verification (valid hex)
 static final int HEADER_WORDS = 5;
+// L'ordinal est persisté : ne jamais réordonner CompressionType, seulement ajouter en fin.
+private static final CompressionType[] MODES = CompressionType.values();
 
 
 static void write(int[] out, int n, CompressionType mode, int k, int flags,
 int extraA, int extraB) {
 out[0] = MAGIC;
 out[1] = n;
-int modeVal = (mode == CompressionType.CROSSING) ? 0 :
-(mode == CompressionType.NO_CROSSING) ? 1 : 2;
-out[2] = (modeVal & 0xFF) | ((k & 0xFF) << 8) | ((flags & 0xFFFF) << 16);
+out[2] = (mode.ordinal() & 0xFF) | ((k & 0xFF) << 8) | ((flags & 0xFFFF) << 16);
 out[3] = extraA;
 out[4] = extraB;
 }
 
 
 static int checkMagic(int[] in) {
-if (in == null || in.length < HEADER_WORDS || in[0] != MAGIC)
-throw new IllegalArgumentException("Invalid compressed buffer or magic");
-return HEADER_WORDS;
+if (isStandard(in)) return HEADER_WORDS;
+return compactField(in, F_BASE);
 }
 
 
-static int n(int[] in) { checkMagic(in); return in[1]; }
-static int k(int[] in) { checkMagic(in); return (in[2] >>> 8) & 0xFF; }
-static int flags(int[] in) { checkMagic(in); return (in[2] >>> 16) & 0xFFFF; }
+private static boolean isStandard(int[] in) {
+return in != null && in.length >= HEADER_WORDS && in[0] == MAGIC;
+}
+
+
+static int n(int[] in) { return isStandard(in) ? in[1] : compactField(in, F_N); }
+static int k(int[] in) { return isStandard(in) ? (in[2] >>> 8) & 0xFF : compactField(in, F_K); }
+static int flags(int[] in) { return isStandard(in) ? (in[2] >>> 16) & 0xFFFF : compactField(in, F_FLAGS); }
 static CompressionType mode(int[] in) {
-checkMagic(in);
-int m = in[2] & 0xFF;
-return (m == 0) ? CompressionType.CROSSING : (m == 1 ? CompressionType.NO_CROSSING : CompressionType.OVERFLOW);
+int m = isStandard(in) ? in[2] & 0xFF : compactField(in, F_MODE);
+if (m >= MODES.length) throw new IllegalArgumentException("Unknown mode: " + m);
+return MODES[m];
+}
+static int extraA(int[] in) { return isStandard(in) ? in[3] : compactField(in, F_EXTRA_A); }
+static int extraB(int[] in) { return isStandard(in) ? in[4] : compactField(in, F_EXTRA_B); }
+
+
+/** Nombre de valeurs en zone d'overflow (0 pour les variantes sans overflow). */
+static int overflow(int[] in) {
+switch (mode(in)) {
+case OVERFLOW: return extraB(in);
+case OVERFLOW_RANK: return extraA(in);
+default: return 0;
+}
+}
+
+
+// --- header compact ---
+
+static final int COMPACT_TAG = 0x0C;
+/** Taille maximale d'un header compact : 3 octets + 4 varints de 5 octets. */
+static final int MAX_COMPACT_WORDS = (3 + 4 * 5 + 3) / 4;
+private static final int F_MODE = 0, F_K = 1, F_N = 2, F_FLAGS = 3, F_EXTRA_A = 4, F_EXTRA_B = 5, F_BASE = 6;
+
+
+/** Réécrit un buffer au header standard avec un header compact (données recopiées telles quelles). */
+static int[] toCompact(int[] in) {
+if (!isStandard(in)) throw new IllegalArgumentException("Invalid compressed buffer or magic");
+int flags = (in[2] >>> 16) & 0xFFFF;
+boolean extras = flags != 0 || in[3] != 0 || in[4] != 0;
+byte[] h = new byte[MAX_COMPACT_WORDS * 4];
+int p = 0;
+h[p++] = (byte) (COMPACT_TAG | (extras ? 0x10 : 0));
+h[p++] = (byte) in[2];
+h[p++] = (byte) (in[2] >>> 8);
+p = putVarint(h, p, in[1]);
+if (extras) {
+p = putVarint(h, p, flags);
+p = putVarint(h, p, in[3]);
+p = putVarint(h, p, in[4]);
+}
+int base = (p + 3) >>> 2;
+int[] out = new int[base + in.length - HEADER_WORDS];
+for (int i = 0; i < p; i++) out[i >>> 2] |= (h[i] & 0xFF) << ((i & 3) << 3);
+System.arraycopy(in, HEADER_WORDS, out, base, in.length - HEADER_WORDS);
+return out;
+}
+
+
+private static int putVarint(byte[] h, int p, int v) {
+while ((v & ~0x7F) != 0) {
+h[p++] = (byte) ((v & 0x7F) | 0x80);
+v >>>= 7;
+}
+h[p++] = (byte) v;
+return p;
+}
+
+
+/** Décode le header compact jusqu'au champ demandé (F_BASE : nombre de words du header). */
+private static int compactField(int[] in, int field) {
+if (in == null || in.length == 0 || (in[0] & 0x0F) != COMPACT_TAG)
+throw new IllegalArgumentException("Invalid compressed buffer or magic");
+int b0 = in[0];
+if (field == F_MODE) return (b0 >>> 8) & 0xFF;
+if (field == F_K) return (b0 >>> 16) & 0xFF;
+boolean extras = (b0 & 0x10) != 0;
+int p = 3;
+int value = 0;
+for (int f = F_N; f <= F_EXTRA_B; f++) {
+if (f > F_N && !extras) {
+if (f == field) return 0;
+continue;
+}
+value = 0;
+for (int shift = 0; ; shift += 7) {
+if ((p >>> 2) >= in.length || shift > 28) throw new IllegalArgumentException("Invalid compressed buffer or magic");
+int b = (in[p >>> 2] >>> ((p & 3) << 3)) & 0xFF;
+p++;
+value |= (b & 0x7F) << shift;
+if ((b & 0x80) == 0) break;
+}
+if (f == field) return value;
+}
+int base = (p + 3) >>> 2;
+if (base > in.length) throw new IllegalArgumentException("Invalid compressed buffer or magic");
+return base;
+}
+
+
+// Mêmes accesseurs sur un buffer sérialisé (chemins get() sur ByteBuffer).
+// Header compact : décodé sur une copie des premiers words (au plus MAX_COMPACT_WORDS).
+static int checkMagic(BufferWords in) {
+if (isStandard(in)) return HEADER_WORDS;
+return compactField(head(in), F_BASE);
+}
+
+
+private static boolean isStandard(BufferWords in) {
+return in.length() >= HEADER_WORDS && in.word(0) == MAGIC;
+}
+
+
+private static int[] head(BufferWords in) {
+int[] h = new int[Math.min(in.length(), MAX_COMPACT_WORDS)];
+for (int i = 0; i < h.length; i++) h[i] = in.word(i);
+return h;
+}
+
+
+static int n(BufferWords in) { return isStandard(in) ? in.word(1) : compactField(head(in), F_N); }
+static int k(BufferWords in) { return isStandard(in) ? (in.word(2) >>> 8) & 0xFF : compactField(head(in), F_K); }
+static int flags(BufferWords in) { return isStandard(in) ? (in.word(2) >>> 16) & 0xFFFF : compactField(head(in), F_FLAGS); }
+static CompressionType mode(BufferWords in) {
+int m = isStandard(in) ? in.word(2) & 0xFF : compactField(head(in), F_MODE);
+if (m >= MODES.length) throw new IllegalArgumentException("Unknown mode: " + m);
+return MODES[m];
 }
-static int extraA(int[] in) { checkMagic(in); return in[3]; }
-static int extraB(int[] in) { checkMagic(in); return in[4]; }
+static int extraA(BufferWords in) { return isStandard(in) ? in.word(3) : compactField(head(in), F_EXTRA_A); }
+static int extraB(BufferWords in) { return isStandard(in) ? in.word(4) : compactField(head(in), F_EXTRA_B); }
 }
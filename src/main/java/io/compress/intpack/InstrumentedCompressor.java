@@ -0,0 +1,68 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Décorateur qui chronomètre compress/decompress et notifie un CompressionListener.
+ * Créé par CompressorFactory uniquement si Options.listener est renseigné.
+ * Les autres appels (get, surcharges ByteBuffer) sont délégués tels quels.
+ */
+final class InstrumentedCompressor implements IntCompressor {
+    private final IntCompressor delegate;
+    private final CompressionType type;
+    private final CompressionListener listener;
+
+    InstrumentedCompressor(IntCompressor delegate, CompressionType type, CompressionListener listener) {
+        this.delegate = delegate;
+        this.type = type;
+        this.listener = listener;
+    }
+
+    @Override
+    public int[] compress(int[] src) {
+        long t0 = System.nanoTime();
+        int[] out = delegate.compress(src);
+        long nanos = System.nanoTime() - t0;
+        listener.compressed(type, src.length, out.length, Headers.k(out), Headers.overflow(out), nanos);
+        return out;
+    }
+
+    @Override
+    public void decompress(int[] compressed, int[] dst) {
+        long t0 = System.nanoTime();
+        delegate.decompress(compressed, dst);
+        listener.decompressed(type, Headers.n(compressed), System.nanoTime() - t0);
+    }
+
+    @Override
+    public void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+        long t0 = System.nanoTime();
+        delegate.decompress(compressed, from, dst, off, len);
+        listener.decompressed(type, len, System.nanoTime() - t0);
+    }
+
+    @Override
+    public int get(int[] compressed, int index) {
+        return delegate.get(compressed, index);
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int[] dst) {
+        long t0 = System.nanoTime();
+        delegate.decompress(compressed, dst);
+        listener.decompressed(type, Headers.n(new BufferWords(compressed)), System.nanoTime() - t0);
+    }
+
+    @Override
+    public void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+        long t0 = System.nanoTime();
+        delegate.decompress(compressed, from, dst, off, len);
+        listener.decompressed(type, len, System.nanoTime() - t0);
+    }
+
+    @Override
+    public int get(ByteBuffer compressed, int index) {
+        return delegate.get(compressed, index);
+    }
+}
@@ -1,11 +1,29 @@
 package io.compress.intpack;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
 
 /**
 * API minimale commune à toutes les variantes.
 * Le buffer compressé est un int[] autosuffisant : header + data (+ overflow éventuel).
+*
+* Les surcharges ByteBuffer manipulent le même buffer sérialisé en octets little-endian
+* (BYTE_ORDER), entre position() et limit() ; elles acceptent des buffers directs,
+* ce qui permet d'écrire vers un channel ou de garder les données hors du heap.
+* get et decompress lisent directement dans le ByteBuffer source (sans copie du buffer
+* compressé) ; les valeurs peuvent aussi être écrites dans un ByteBuffer destination.
 */
 public interface IntCompressor {
+/** Ordre des octets des buffers compressés sérialisés (cohérent avec LSB-first). */
+ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+
+/** Taille des groupes de valeurs décodées vers un ByteBuffer destination. */
+int DECODE_GROUP = 1024;
+
+
 /**
 * Compresse src en un nouveau buffer int[] qui contient header + data.
 */
@@ -22,4 +40,111 @@ void decompress(int[] compressed, int[] dst);
 * Accès direct au i-ème élément sans tout décompresser (O(1)).
 */
 int get(int[] compressed, int index);
+
+
+/**
+* Décompresse les valeurs [from, from+len) dans dst[off..off+len).
+* L'implémentation par défaut passe par get (implémentations externes) ; toutes les
+* variantes de la fabrique se positionnent une fois sur from puis décodent en flux.
+*/
+default void decompress(int[] compressed, int from, int[] dst, int off, int len) {
+CodecEvents.GetRange ev = CodecEvents.beginGetRange();
+BitPackingBase.checkRange(Headers.n(compressed), from, dst, off, len);
+for (int i = 0; i < len; i++) dst[off + i] = get(compressed, from + i);
+CodecEvents.gotRange(ev, compressed, from, len);
+}
+
+
+/**
+* Compresse src et écrit le résultat à dst.position(), qui est avancée.
+* Renvoie le nombre d'octets écrits.
+* Le buffer est d'abord compressé par le chemin int[] (tableau temporaire sur le heap,
+* de la taille compressée) puis copié en bloc dans dst : un dst direct évite de garder
+* le résultat sur le heap, pas l'allocation transitoire.
+*/
+default int compress(int[] src, ByteBuffer dst) {
+int[] words = compress(src);
+BufferWords.write(dst, words);
+return words.length << 2;
+}
+
+
+/**
+* Variante de compress lisant src entre position() et limit() (position inchangée).
+* Les valeurs sont d'abord copiées dans un int[] de src.remaining() entrées, en plus
+* du tableau compressé temporaire de compress(int[], ByteBuffer).
+*/
+default int compress(IntBuffer src, ByteBuffer dst) {
+int[] values = new int[src.remaining()];
+src.duplicate().get(values);
+return compress(values, dst);
+}
+
+
+/**
+* Décompresse le buffer situé entre compressed.position() et limit() (position inchangée),
+* par decompress de plage sur [0, n).
+*/
+default void decompress(ByteBuffer compressed, int[] dst) {
+int n = Headers.n(new BufferWords(compressed));
+if (dst.length < n) throw new IllegalArgumentException("dst trop petit");
+decompress(compressed, 0, dst, 0, n);
+}
+
+
+/**
+* Décompresse les valeurs [from, from+len) d'un buffer sérialisé dans dst[off..off+len).
+* Toutes les variantes de la fabrique lisent directement dans le ByteBuffer ;
+* l'implémentation par défaut (copie complète) ne sert qu'aux implémentations externes.
+*/
+default void decompress(ByteBuffer compressed, int from, int[] dst, int off, int len) {
+decompress(BufferWords.toArray(compressed), from, dst, off, len);
+}
+
+
+/**
+* Décompresse tout le buffer sérialisé compressed vers dst : n valeurs int little-endian
+* écrites à dst.position(), qui est avancée. Renvoie le nombre d'octets écrits.
+* Décodage par groupes de DECODE_GROUP valeurs (decompress de plage dans un scratch
+* borné) : aucun tableau de n valeurs sur le heap.
+*/
+default int decompress(ByteBuffer compressed, ByteBuffer dst) {
+int n = Headers.n(new BufferWords(compressed));
+IntBuffer out = BufferWords.values(dst, n);
+int[] scratch = new int[Math.max(1, Math.min(DECODE_GROUP, n))];
+for (int from = 0; from < n; from += scratch.length) {
+int len = Math.min(scratch.length, n - from);
+decompress(compressed, from, scratch, 0, len);
+out.put(scratch, 0, len);
+}
+dst.position(dst.position() + (n << 2));
+return n << 2;
+}
+
+
+/**
+* Même écriture vers un ByteBuffer destination, depuis un buffer compressé int[].
+*/
+default int decompress(int[] compressed, ByteBuffer dst) {
+int n = Headers.n(compressed);
+IntBuffer out = BufferWords.values(dst, n);
+int[] scratch = new int[Math.max(1, Math.min(DECODE_GROUP, n))];
+for (int from = 0; from < n; from += scratch.length) {
+int len = Math.min(scratch.length, n - from);
+decompress(compressed, from, scratch, 0, len);
+out.put(scratch, 0, len);
+}
+dst.position(dst.position() + (n << 2));
+return n << 2;
+}
+
+
+/**
+* get(i) sur un buffer sérialisé, lu directement dans le ByteBuffer.
+* Toutes les variantes de la fabrique redéfinissent cette méthode sans copie ;
+* l'implémentation par défaut (copie complète) ne sert qu'aux implémentations externes.
+*/
+default int get(ByteBuffer compressed, int index) {
+return get(BufferWords.toArray(compressed), index);
+}
 }
@@ -0,0 +1,225 @@
+package io.compress.intpack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Tableau compressé indexé en long, au-delà des 2^31 éléments d'un int[].
+ *
+ * Un buffer compressé reste un int[] (au plus ~2^31 words, soit ~2^36 bits adressables
+ * depuis le passage des positions en long), et son header stocke n sur 32 bits.
+ * Pour des milliards de valeurs, les données sont découpées en chunks de
+ * 2^chunkBits valeurs, chacun compressé indépendamment par le codec choisi :
+ * get(i) = chunks[i >>> chunkBits] puis get local à (i & mask), sans recherche.
+ *
+ * Construction en flux via Builder : seul le chunk en cours est gardé décodé.
+ *
+ * Sert aussi à éviter les allocations « humongous » de G1 (objet >= la moitié d'une
+ * région, soit HUMONGOUS_BYTES = 512 Ko avec des régions de 1 Mo) : un gros int[]
+ * compressé d'un seul bloc est alloué hors des régions ordinaires et fragmente le tas.
+ * La taille de chunk par défaut dépend de la variante (defaultChunkBits) : c'est la plus
+ * grande puissance de 2, au plus 2^DEFAULT_CHUNK_BITS, dont la sortie dans le pire cas
+ * (worstBitsPerValue, valeurs négatives ou toutes distinctes) reste sous HUMONGOUS_BYTES,
+ * en-tête d'objet JVM compris. 2^16 valeurs pour toutes les variantes sauf SIMPLE8B
+ * (65 bits par valeur au pire : 2^15). Avec un chunkBits explicite, pas de garantie.
+ * chunks() / fromChunks(...) exposent et relisent la liste des buffers, pour les
+ * écrire ou les transmettre sans jamais les concaténer.
+ */
+public final class LongPackedArray {
+    /** Au plus 2^16 valeurs par chunk par défaut (256 Ko décodés). */
+    public static final int DEFAULT_CHUNK_BITS = 16;
+    /** Seuil humongous de G1 avec des régions de 1 Mo (la plus petite taille). */
+    public static final int HUMONGOUS_BYTES = 512 * 1024;
+    // En-tête d'objet int[] + header standard + marge (alignements, word de garde).
+    private static final int FIXED_BYTES = 16 + 4 * Headers.HEADER_WORDS + 64;
+
+    private final IntCompressor codec;
+    private final int[][] chunks;
+    private final int chunkBits;
+    private final long size;
+
+    private LongPackedArray(IntCompressor codec, int[][] chunks, int chunkBits, long size) {
+        this.codec = codec;
+        this.chunks = chunks;
+        this.chunkBits = chunkBits;
+        this.size = size;
+    }
+
+    /** Compresse src en chunks de 2^defaultChunkBits(type) valeurs. */
+    public static LongPackedArray of(CompressionType type, CompressorFactory.Options opts, int[] src) {
+        if (src == null) throw new IllegalArgumentException("src null");
+        return builder(type, opts, defaultChunkBits(type)).addAll(src).build();
+    }
+
+    /**
+     * Plus grand chunkBits (<= DEFAULT_CHUNK_BITS) dont un chunk compressé reste, dans
+     * le pire cas de la variante, sous HUMONGOUS_BYTES.
+     */
+    public static int defaultChunkBits(CompressionType type) {
+        if (type == null) throw new IllegalArgumentException("type null");
+        int b = DEFAULT_CHUNK_BITS;
+        while (b > 1 && FIXED_BYTES + (((long) worstBitsPerValue(type, b) << b) >>> 3) >= HUMONGOUS_BYTES) b--;
+        return b;
+    }
+
+    /**
+     * Majorant des bits par valeur d'un chunk de 2^chunkBits valeurs (hors header).
+     * Dérivé du layout de chaque variante ; le test couvre chaque cas sur données adverses.
+     */
+    static int worstBitsPerValue(CompressionType type, int chunkBits) {
+        switch (type) {
+            case CROSSING:
+            case NO_CROSSING: return 32;                  // k <= 32
+            case OVERFLOW: return 33 + chunkBits;         // flag + index sur chunkBits bits + 32 bits d'overflow
+            case OVERFLOW_RANK: return 35;                // 1 + 32 + bitmap + répertoire
+            case ELIAS_FANO: return 36;                   // bits bas + 2 bits hauts + échantillons select
+            case DICTIONARY: return 32 + chunkBits;       // table (<= n words) + codes sur chunkBits bits
+            case RLE: return 33 + chunkBits;              // valeur + fin de run, un run par valeur
+            case STREAM_VBYTE: return 35;                 // 32 bits + 2 bits de contrôle + offsets de blocs
+            case SIMPLE8B: return 65;                     // 1 valeur par word 64 bits + échantillons
+            default: throw new IllegalArgumentException("Unknown type: " + type);
+        }
+    }
+
+    /**
+     * Relit une liste de chunks produite par chunks() : variante et nombre de valeurs
+     * lus dans les headers, tous les chunks sauf le dernier doivent être pleins.
+     */
+    public static LongPackedArray fromChunks(List<int[]> chunks) {
+        if (chunks == null) throw new IllegalArgumentException("chunks null");
+        if (chunks.isEmpty()) return builder(CompressionType.CROSSING).build();
+        int[][] arr = chunks.toArray(new int[0][]);
+        CompressionType type = CompressorFactory.typeOf(arr[0]);
+        int full = CompressorFactory.sizeOf(arr[0]);
+        if (arr.length > 1 && Integer.bitCount(full) != 1) throw new IllegalArgumentException("taille de chunk invalide: " + full);
+        int chunkBits = (arr.length == 1) ? 30 : Integer.numberOfTrailingZeros(full);
+        long size = 0;
+        for (int c = 0; c < arr.length; c++) {
+            if (CompressorFactory.typeOf(arr[c]) != type) throw new IllegalArgumentException("variantes différentes entre chunks");
+            int n = CompressorFactory.sizeOf(arr[c]);
+            if ((c < arr.length - 1) ? n != full : n > 1 << chunkBits) throw new IllegalArgumentException("chunk " + c + " de taille invalide: " + n);
+            size += n;
+        }
+        return new LongPackedArray(CompressorFactory.create(type, null), arr, chunkBits, size);
+    }
+
+    public static Builder builder(CompressionType type) {
+        return new Builder(type, null, defaultChunkBits(type));
+    }
+
+    /** chunkBits dans [1, 30] : 2^chunkBits valeurs par chunk. */
+    public static Builder builder(CompressionType type, CompressorFactory.Options opts, int chunkBits) {
+        return new Builder(type, opts, chunkBits);
+    }
+
+    /**
+     * Accumule les valeurs et compresse chaque chunk dès qu'il est plein.
+     * Le tampon du chunk en cours grandit par doublement (à partir de INITIAL_PENDING) :
+     * un grand chunkBits ne coûte que les valeurs effectivement ajoutées.
+     */
+    public static final class Builder {
+        static final int INITIAL_PENDING = 1024;
+        private final IntCompressor codec;
+        private final int chunkBits;
+        private final int chunkSize;
+        private int[] pending;
+        private final List<int[]> chunks = new ArrayList<>();
+        private int fill;
+        private long size;
+
+        private Builder(CompressionType type, CompressorFactory.Options opts, int chunkBits) {
+            if (type == null) throw new IllegalArgumentException("type null");
+            if (chunkBits < 1 || chunkBits > 30) throw new IllegalArgumentException("chunkBits doit être dans [1, 30]");
+            this.codec = CompressorFactory.create(type, opts);
+            this.chunkBits = chunkBits;
+            this.chunkSize = 1 << chunkBits;
+            this.pending = new int[Math.min(chunkSize, INITIAL_PENDING)];
+        }
+
+        public Builder add(int v) {
+            if (fill == pending.length) grow(1);
+            pending[fill++] = v;
+            size++;
+            if (fill == chunkSize) flush();
+            return this;
+        }
+
+        public Builder addAll(int[] src, int off, int len) {
+            if (off < 0 || len < 0 || off > src.length - len) throw new IndexOutOfBoundsException();
+            while (len > 0) {
+                int c = Math.min(len, chunkSize - fill);
+                if (fill + c > pending.length) grow(c);
+                System.arraycopy(src, off, pending, fill, c);
+                fill += c;
+                size += c;
+                off += c;
+                len -= c;
+                if (fill == chunkSize) flush();
+            }
+            return this;
+        }
+
+        public Builder addAll(int[] src) {
+            return addAll(src, 0, src.length);
+        }
+
+        // Place pour extra valeurs de plus, sans dépasser un chunk.
+        private void grow(int extra) {
+            long want = Math.max((long) fill + extra, 2L * pending.length);
+            pending = Arrays.copyOf(pending, (int) Math.min(chunkSize, want));
+        }
+
+        private void flush() {
+            chunks.add(codec.compress(fill == pending.length ? pending : Arrays.copyOf(pending, fill)));
+            fill = 0;
+        }
+
+        public LongPackedArray build() {
+            if (fill > 0) flush();
+            return new LongPackedArray(codec, chunks.toArray(new int[0][]), chunkBits, size);
+        }
+    }
+
+    public long size() { return size; }
+
+    public int chunkCount() { return chunks.length; }
+
+    /** Buffers compressés, un par chunk (vue non modifiable, buffers partagés). */
+    public List<int[]> chunks() { return Collections.unmodifiableList(Arrays.asList(chunks)); }
+
+    /** Taille compressée totale en words (headers de chunks compris). */
+    public long compressedWords() {
+        long w = 0;
+        for (int[] c : chunks) w += c.length;
+        return w;
+    }
+
+    public int get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException();
+        return codec.get(chunks[(int) (index >>> chunkBits)], (int) (index & ((1 << chunkBits) - 1)));
+    }
+
+    /** Décompresse tout le tableau dans dst (size() <= dst.length). */
+    public void decompress(int[] dst) {
+        if (dst.length < size) throw new IllegalArgumentException("dst trop petit");
+        get(0L, dst, 0, (int) size);
+    }
+
+    /** Copie les valeurs [from, from + len) dans dst[off..], chunk par chunk. */
+    public void get(long from, int[] dst, int off, int len) {
+        if (from < 0 || len < 0 || from > size - len) throw new IndexOutOfBoundsException();
+        if (off < 0 || off > dst.length - len) throw new IllegalArgumentException("dst trop petit");
+        final int mask = (1 << chunkBits) - 1;
+        while (len > 0) {
+            int local = (int) (from & mask);
+            int c = Math.min(len, (1 << chunkBits) - local);
+            codec.decompress(chunks[(int) (from >>> chunkBits)], local, dst, off, c);
+            from += c;
+            off += c;
+            len -= c;
+        }
+    }
+}
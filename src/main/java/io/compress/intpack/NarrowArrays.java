@@ -0,0 +1,105 @@
+package io.compress.intpack;
+
+
+/**
+ * Décompression vers des tableaux primitifs étroits (byte[], short[], char[]) pour les
+ * colonnes de faible largeur : avec k <= 8 (ou <= 16), un int[] décompressé occupe 4 fois
+ * (ou 2 fois) la mémoire utile, et les boucles en aval parcourent autant de lignes de cache.
+ *
+ * Réservé aux variantes à largeur fixe CROSSING et NO_CROSSING, dont le header garantit
+ * que toutes les valeurs tiennent sur k bits : on échoue tout de suite si k dépasse la
+ * largeur du type cible, sans rien décoder.
+ * Les valeurs sont les k bits bruts ; un byte (resp. short) relu en Java est signé :
+ * pour k = 8 (resp. 16), utiliser b & 0xFF (resp. s & 0xFFFF). char est non signé.
+ *
+ * Le décodage passe par decompress de plage par groupes de GROUP valeurs dans un
+ * scratch int[] borné, puis est rétréci dans la destination.
+ */
+public final class NarrowArrays {
+    static final int GROUP = 1024;
+
+    private NarrowArrays() {}
+
+    public static byte[] decompressToBytes(int[] compressed) {
+        byte[] out = new byte[open(compressed, 8).n];
+        decompressToBytes(compressed, 0, out, 0, out.length);
+        return out;
+    }
+
+    /** Valeurs [from, from + len) dans dst[off..off + len), k <= 8. */
+    public static void decompressToBytes(int[] compressed, int from, byte[] dst, int off, int len) {
+        Source s = open(compressed, 8);
+        check(s.n, from, dst.length, off, len);
+        int[] scratch = new int[Math.min(GROUP, Math.max(1, len))];
+        for (int done = 0; done < len; ) {
+            int c = Math.min(scratch.length, len - done);
+            s.codec.decompress(compressed, from + done, scratch, 0, c);
+            for (int i = 0; i < c; i++) dst[off + done + i] = (byte) scratch[i];
+            done += c;
+        }
+    }
+
+    public static short[] decompressToShorts(int[] compressed) {
+        short[] out = new short[open(compressed, 16).n];
+        decompressToShorts(compressed, 0, out, 0, out.length);
+        return out;
+    }
+
+    /** Valeurs [from, from + len) dans dst[off..off + len), k <= 16. */
+    public static void decompressToShorts(int[] compressed, int from, short[] dst, int off, int len) {
+        Source s = open(compressed, 16);
+        check(s.n, from, dst.length, off, len);
+        int[] scratch = new int[Math.min(GROUP, Math.max(1, len))];
+        for (int done = 0; done < len; ) {
+            int c = Math.min(scratch.length, len - done);
+            s.codec.decompress(compressed, from + done, scratch, 0, c);
+            for (int i = 0; i < c; i++) dst[off + done + i] = (short) scratch[i];
+            done += c;
+        }
+    }
+
+    public static char[] decompressToChars(int[] compressed) {
+        char[] out = new char[open(compressed, 16).n];
+        decompressToChars(compressed, 0, out, 0, out.length);
+        return out;
+    }
+
+    /** Valeurs [from, from + len) dans dst[off..off + len), k <= 16, non signées. */
+    public static void decompressToChars(int[] compressed, int from, char[] dst, int off, int len) {
+        Source s = open(compressed, 16);
+        check(s.n, from, dst.length, off, len);
+        int[] scratch = new int[Math.min(GROUP, Math.max(1, len))];
+        for (int done = 0; done < len; ) {
+            int c = Math.min(scratch.length, len - done);
+            s.codec.decompress(compressed, from + done, scratch, 0, c);
+            for (int i = 0; i < c; i++) dst[off + done + i] = (char) scratch[i];
+            done += c;
+        }
+    }
+
+    /** Compresseur de la variante et nombre de valeurs, après contrôle de la largeur. */
+    private static final class Source {
+        final IntCompressor codec;
+        final int n;
+
+        Source(IntCompressor codec, int n) {
+            this.codec = codec;
+            this.n = n;
+        }
+    }
+
+    private static Source open(int[] compressed, int maxK) {
+        if (compressed == null) throw new IllegalArgumentException("compressed null");
+        CompressionType type = Headers.mode(compressed);
+        if (type != CompressionType.CROSSING && type != CompressionType.NO_CROSSING)
+            throw new IllegalArgumentException("décompression étroite : CROSSING ou NO_CROSSING uniquement, pas " + type);
+        int k = Headers.k(compressed);
+        if (k > maxK) throw new IllegalArgumentException("k=" + k + " trop large pour un tableau de " + maxK + " bits");
+        return new Source(CompressorFactory.create(type, null), Headers.n(compressed));
+    }
+
+    private static void check(int n, int from, int dstLength, int off, int len) {
+        if (from < 0 || len < 0 || from > n - len) throw new IndexOutOfBoundsException();
+        if (off < 0 || off > dstLength - len) throw new IllegalArgumentException("dst trop petit");
+    }
+}
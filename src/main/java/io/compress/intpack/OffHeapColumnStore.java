@@ -0,0 +1,131 @@
+package io.compress.intpack;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Stockage hors heap de colonnes compressées, avec cycle de vie explicite.
+ * Chaque colonne est un buffer compressé sérialisé dans un ByteBuffer direct
+ * (little-endian, voir IntCompressor.BYTE_ORDER) : le heap ne contient plus que
+ * de petits objets de description, que le GC parcourt sans coût.
+ *
+ * get() et decompress() décodent directement dans le buffer direct, via les surcharges
+ * ByteBuffer des compresseurs (le mode est lu dans le header de chaque colonne) : aucune
+ * copie du buffer compressé sur le heap, seul le tableau destination y est alloué.
+ *
+ * Cycle de vie : close() rend le store inutilisable (IllegalStateException ensuite)
+ * et lâche ses références vers les buffers directs ; il ne libère pas la mémoire native.
+ * Celle-ci n'est rendue que lorsque le GC a collecté chaque buffer (son Cleaner s'exécute
+ * alors), ce qui peut tarder si le heap est peu sollicité. offHeapBytes() compte les
+ * octets référencés par le store, pas la mémoire native encore allouée. Avec la cible
+ * JDK 21 il n'existe pas d'API standard de libération immédiate (Arena est en preview
+ * jusqu'au JDK 22).
+ *
+ * Thread-safe : lectures concurrentes sans verrou ; put/remove remplacent atomiquement.
+ */
+public final class OffHeapColumnStore implements AutoCloseable {
+
+    private static final class Column {
+        final ByteBuffer data; // vue read-only little-endian, position 0
+        final CompressionType type;
+        final IntCompressor codec;
+        final int size;
+
+        Column(ByteBuffer data, CompressionType type, int size) {
+            this.data = data;
+            this.type = type;
+            this.codec = CompressorFactory.create(type, null);
+            this.size = size;
+        }
+    }
+
+    private final Map<String, Column> columns = new ConcurrentHashMap<>();
+    private final AtomicLong offHeapBytes = new AtomicLong();
+    private volatile boolean closed;
+
+    /** Compresse values avec la variante donnée et range le résultat hors heap. */
+    public void put(String name, int[] values, CompressionType type) {
+        putCompressed(name, CompressorFactory.create(type, null).compress(values));
+    }
+
+    /** Copie hors heap un buffer déjà compressé (int[] produit par un IntCompressor). */
+    public void putCompressed(String name, int[] compressed) {
+        ensureOpen();
+        CompressionType type = Headers.mode(compressed);
+        ByteBuffer buf = ByteBuffer.allocateDirect(compressed.length << 2);
+        BufferWords.write(buf, compressed);
+        buf.flip();
+        Column col = new Column(buf.asReadOnlyBuffer().order(IntCompressor.BYTE_ORDER), type, Headers.n(compressed));
+        offHeapBytes.addAndGet(buf.capacity());
+        Column old = columns.put(name, col);
+        if (old != null) offHeapBytes.addAndGet(-old.data.capacity());
+    }
+
+    public boolean remove(String name) {
+        ensureOpen();
+        Column old = columns.remove(name);
+        if (old == null) return false;
+        offHeapBytes.addAndGet(-old.data.capacity());
+        return true;
+    }
+
+    public int get(String name, int index) {
+        Column c = column(name);
+        return c.codec.get(c.data, index);
+    }
+
+    public void decompress(String name, int[] dst) {
+        Column c = column(name);
+        if (dst.length < c.size) throw new IllegalArgumentException("dst trop petit");
+        c.codec.decompress(c.data, 0, dst, 0, c.size);
+    }
+
+    /** Valeurs [from, from + len) de la colonne dans dst[off..off + len). */
+    public void decompress(String name, int from, int[] dst, int off, int len) {
+        Column c = column(name);
+        c.codec.decompress(c.data, from, dst, off, len);
+    }
+
+    public int[] decompress(String name) {
+        Column c = column(name);
+        int[] out = new int[c.size];
+        c.codec.decompress(c.data, 0, out, 0, c.size);
+        return out;
+    }
+
+    /** Nombre de valeurs de la colonne. */
+    public int size(String name) { return column(name).size; }
+
+    public CompressionType type(String name) { return column(name).type; }
+
+    public Set<String> columns() {
+        ensureOpen();
+        return Set.copyOf(columns.keySet());
+    }
+
+    /** Octets natifs actuellement référencés par le store. */
+    public long offHeapBytes() { return offHeapBytes.get(); }
+
+    /** Rend le store inutilisable ; la mémoire native suit au prochain GC des buffers. */
+    @Override
+    public void close() {
+        closed = true;
+        columns.clear();
+        offHeapBytes.set(0);
+    }
+
+    private Column column(String name) {
+        ensureOpen();
+        Column c = columns.get(name);
+        if (c == null) throw new IllegalArgumentException("Unknown column: " + name);
+        return c;
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("store fermé");
+    }
+}
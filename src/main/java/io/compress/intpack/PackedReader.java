@@ -0,0 +1,52 @@
+package io.compress.intpack;
+
+
+/**
+ * Lecteur en accès aléatoire sur un buffer compressé, sans décompression.
+ * Le header est décodé une seule fois à la construction (au lieu d'un
+ * checkMagic par appel de get), ce qui compte pour les recherches et les
+ * opérations ensemblistes qui enchaînent beaucoup d'accès.
+ *
+ * CROSSING et NO_CROSSING sont lus directement ; les autres variantes
+ * passent par le get() de leur compresseur.
+ */
+final class PackedReader {
+    private final int[] buf;
+    private final CompressionType mode;
+    private final int n;
+    private final int k;
+    private final int base;
+    private final int per;
+    private final IntCompressor fallback;
+
+    PackedReader(int[] compressed) {
+        this.base = Headers.checkMagic(compressed);
+        this.buf = compressed;
+        this.mode = Headers.mode(compressed);
+        this.n = Headers.n(compressed);
+        this.k = Headers.k(compressed);
+        this.per = BitPackingBase.perWordNoCrossing(k);
+        this.fallback = (mode == CompressionType.CROSSING || mode == CompressionType.NO_CROSSING)
+                ? null : CompressorFactory.create(mode, null);
+    }
+
+    int size() { return n; }
+
+    CompressionType mode() { return mode; }
+
+    int[] buffer() { return buf; }
+
+    /**
+     * i-ème valeur (sans contrôle de bornes : l'appelant garantit 0 <= i < n).
+     */
+    int get(int i) {
+        switch (mode) {
+            case CROSSING:
+                return BitIO.readBitsLSB(buf, ((long) base << 5) + (long) i * k, k);
+            case NO_CROSSING:
+                return BitIO.readBitsInWordLSB(buf[base + i / per], (i % per) * k, k);
+            default:
+                return fallback.get(buf, i);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.compress.intpack;
+
+
+/**
+ * Format « lot » pour beaucoup de petits tableaux (listes par entité de 10 à 50 valeurs) :
+ * un seul int[] avec un header commun, une table d'offsets, puis les valeurs de tous les
+ * tableaux packées à la suite. Comparé à un buffer compressé par tableau, on économise
+ * le header de 5 words et l'objet int[] (16 octets d'en-tête JVM) de chaque tableau.
+ *
+ * Chaque tableau garde son propre k (ou un k commun imposé), les valeurs sont packées
+ * LSB-first comme CROSSING. L'entrée a de la table donne : position en bits du tableau
+ * dans la zone de données, nombre de valeurs, k. get(a, i) = 2 lectures de bits.
+ *
+ * Layout : [MAGIC][count][startBits | countBits << 8][dataBits] | table (count entrées
+ * de startBits + countBits + 6 bits) | données (alignées sur un word).
+ */
+public final class SmallArrays {
+    static final int MAGIC = 0x1B17BA7C;
+    static final int HEADER_WORDS = 4;
+    static final int K_BITS = 6; // k dans [1, 32]
+
+    private SmallArrays() {}
+
+    /** Packe les tableaux, k choisi par tableau (32 si valeurs négatives). */
+    public static int[] pack(int[][] arrays) {
+        return pack(arrays, 0);
+    }
+
+    /** Packe les tableaux avec un k commun (k <= 0 : k choisi par tableau). */
+    public static int[] pack(int[][] arrays, int k) {
+        if (arrays == null) throw new IllegalArgumentException("src null");
+        if (k > 32) throw new IllegalArgumentException("k doit être <= 32");
+        final int count = arrays.length;
+        int[] ks = new int[count];
+        long dataBits = 0;
+        int maxLen = 0;
+        for (int a = 0; a < count; a++) {
+            int[] arr = arrays[a];
+            if (arr == null) throw new IllegalArgumentException("tableau null à l'indice " + a);
+            ks[a] = (k > 0) ? k : kFor(arr);
+            dataBits += (long) arr.length * ks[a];
+            maxLen = Math.max(maxLen, arr.length);
+        }
+        final int startBits = Math.max(1, BitPackingBase.ceilLog2((int) Math.min(dataBits + 1, Integer.MAX_VALUE)));
+        final int countBits = Math.max(1, BitPackingBase.ceilLog2(maxLen + 1));
+        final long entryBits = startBits + countBits + K_BITS;
+        final long tableBits = count * entryBits;
+        final long dataBase = HEADER_WORDS + ((tableBits + 31) >>> 5);
+        if ((dataBase << 5) + dataBits > Integer.MAX_VALUE) throw new IllegalArgumentException("lot trop volumineux");
+
+        int[] out = new int[(int) (dataBase + ((dataBits + 31) >>> 5))];
+        out[0] = MAGIC;
+        out[1] = count;
+        out[2] = startBits | (countBits << 8);
+        out[3] = (int) dataBits;
+        final int tableBit = HEADER_WORDS << 5;
+        final int dataBit = (int) (dataBase << 5);
+        int start = 0;
+        for (int a = 0; a < count; a++) {
+            int[] arr = arrays[a];
+            int kA = ks[a];
+            int e = tableBit + (int) (a * entryBits);
+            BitIO.writeBitsLSB(out, e, startBits, start);
+            BitIO.writeBitsLSB(out, e + startBits, countBits, arr.length);
+            BitIO.writeBitsLSB(out, e + startBits + countBits, K_BITS, kA - 1);
+            for (int v : arr) {
+                BitIO.writeBitsLSB(out, dataBit + start, kA, v);
+                start += kA;
+            }
+        }
+        return out;
+    }
+
+    private static int kFor(int[] arr) {
+        int max = 0;
+        for (int v : arr) {
+            if (v < 0) return 32;
+            if (v > max) max = v;
+        }
+        return Math.max(1, BitPackingBase.ceilLog2(max + 1));
+    }
+
+    /** Nombre de tableaux du lot. */
+    public static int count(int[] batch) {
+        checkMagic(batch);
+        return batch[1];
+    }
+
+    /** Longueur du tableau a. */
+    public static int length(int[] batch, int a) {
+        return entry(batch, a).len;
+    }
+
+    /** Valeur i du tableau a, sans rien décompresser. */
+    public static int get(int[] batch, int a, int i) {
+        Entry e = entry(batch, a);
+        if (i < 0 || i >= e.len) throw new IndexOutOfBoundsException();
+        return BitIO.readBitsLSB(batch, e.bit + i * e.k, e.k);
+    }
+
+    /** Copie le tableau a dans dst[off..] et renvoie sa longueur. */
+    public static int unpack(int[] batch, int a, int[] dst, int off) {
+        Entry e = entry(batch, a);
+        if (off < 0 || off > dst.length - e.len) throw new IllegalArgumentException("dst trop petit");
+        int bit = e.bit;
+        for (int i = 0; i < e.len; i++, bit += e.k) dst[off + i] = BitIO.readBitsLSB(batch, bit, e.k);
+        return e.len;
+    }
+
+    public static int[] unpack(int[] batch, int a) {
+        int[] out = new int[length(batch, a)];
+        unpack(batch, a, out, 0);
+        return out;
+    }
+
+    /** Position absolue (en bits) des données, longueur et k d'un tableau. */
+    private static final class Entry {
+        final int bit, len, k;
+
+        Entry(int bit, int len, int k) {
+            this.bit = bit;
+            this.len = len;
+            this.k = k;
+        }
+    }
+
+    private static Entry entry(int[] batch, int a) {
+        checkMagic(batch);
+        int count = batch[1];
+        if (a < 0 || a >= count) throw new IndexOutOfBoundsException();
+        int startBits = batch[2] & 0xFF;
+        int countBits = (batch[2] >>> 8) & 0xFF;
+        int entryBits = startBits + countBits + K_BITS;
+        long tableBits = (long) count * entryBits;
+        int dataBit = (int) ((HEADER_WORDS + ((tableBits + 31) >>> 5)) << 5);
+        int e = (HEADER_WORDS << 5) + (int) ((long) a * entryBits);
+        int start = BitIO.readBitsLSB(batch, e, startBits);
+        int len = BitIO.readBitsLSB(batch, e + startBits, countBits);
+        int k = BitIO.readBitsLSB(batch, e + startBits + countBits, K_BITS) + 1;
+        return new Entry(dataBit + start, len, k);
+    }
+
+    private static void checkMagic(int[] batch) {
+        if (batch == null || batch.length < HEADER_WORDS || batch[0] != MAGIC)
+            throw new IllegalArgumentException("Invalid small-array batch or magic");
+    }
+}
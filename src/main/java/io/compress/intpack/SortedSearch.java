@@ -0,0 +1,140 @@
+package io.compress.intpack;
+
+
+/**
+ * Recherche dichotomique directement sur un buffer compressé trié (ordre signé,
+ * non décroissant), sans décompression : O(log n) appels à get().
+ *
+ * Sémantique alignée sur les conventions usuelles :
+ * - lowerBound(key) : premier indice i tel que v[i] >= key (n si aucun)
+ * - upperBound(key) : premier indice i tel que v[i] > key (n si aucun)
+ * - indexOf(key)    : un indice de key (le premier), ou -1 si absent
+ *
+ * Sur ELIAS_FANO, lowerBound/upperBound utilisent nextGEQ (saut direct au
+ * bucket via l'index select0) au lieu de la dichotomie.
+ *
+ * Pour les lookups répétés sur un même buffer, {@link SkipIndex} échantillonne
+ * une valeur toutes les 'stride' positions : la recherche se fait d'abord sur
+ * l'échantillon (int[] en clair), puis sur un seul bloc de 'stride' valeurs.
+ */
+public final class SortedSearch {
+    private SortedSearch() {}
+
+    public static int lowerBound(int[] compressed, int key) {
+        if (Headers.mode(compressed) == CompressionType.ELIAS_FANO) return BitPackingEliasFano.nextGEQ(compressed, key);
+        PackedReader r = new PackedReader(compressed);
+        return lowerBound(r, 0, r.size(), key);
+    }
+
+    public static int upperBound(int[] compressed, int key) {
+        if (Headers.mode(compressed) == CompressionType.ELIAS_FANO) {
+            return (key == Integer.MAX_VALUE) ? Headers.n(compressed) : BitPackingEliasFano.nextGEQ(compressed, key + 1);
+        }
+        PackedReader r = new PackedReader(compressed);
+        return upperBound(r, 0, r.size(), key);
+    }
+
+    public static int indexOf(int[] compressed, int key) {
+        PackedReader r = new PackedReader(compressed);
+        int i = lowerBound(compressed, key);
+        return (i < r.size() && r.get(i) == key) ? i : -1;
+    }
+
+    // Recherches bornées à [from, to) — partagées avec SkipIndex.
+    static int lowerBound(PackedReader r, int from, int to, int key) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (r.get(mid) < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    static int upperBound(PackedReader r, int from, int to, int key) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (r.get(mid) <= key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * lowerBound sur [from, n) par galop (exponential search) : coût O(log d) où d est
+     * la distance parcourue, ce qui rend les parcours croisés de deux listes
+     * proportionnels à la plus petite. Sur ELIAS_FANO, saut direct via nextGEQ.
+     */
+    static int gallop(PackedReader r, int from, int key) {
+        int n = r.size();
+        if (r.mode() == CompressionType.ELIAS_FANO) {
+            return Math.max(from, BitPackingEliasFano.nextGEQ(r.buffer(), key));
+        }
+        if (from >= n || r.get(from) >= key) return from;
+        int lo = from, step = 1; // invariant : v[lo] < key
+        while (lo + step < n && r.get(lo + step) < key) {
+            lo += step;
+            step <<= 1;
+        }
+        return lowerBound(r, lo + 1, Math.min(n, lo + step), key);
+    }
+
+    /**
+     * Index de sauts (skip pointers) : samples[j] = v[j * stride].
+     * Coût mémoire n/stride ints ; chaque recherche fait log2(n/stride) comparaisons
+     * en clair puis log2(stride) accès au buffer compressé. Utile surtout pour les
+     * variantes où get() est plus coûteux (OVERFLOW) ou pour des lookups très fréquents.
+     */
+    public static final class SkipIndex {
+        private final PackedReader reader;
+        private final int stride;
+        private final int[] samples;
+
+        private SkipIndex(PackedReader reader, int stride, int[] samples) {
+            this.reader = reader;
+            this.stride = stride;
+            this.samples = samples;
+        }
+
+        public static SkipIndex build(int[] compressed, int stride) {
+            if (stride <= 0) throw new IllegalArgumentException("stride doit être > 0");
+            PackedReader r = new PackedReader(compressed);
+            int n = r.size();
+            int[] samples = new int[(n + stride - 1) / stride];
+            for (int j = 0; j < samples.length; j++) samples[j] = r.get(j * stride);
+            return new SkipIndex(r, stride, samples);
+        }
+
+        public int size() { return reader.size(); }
+
+        public int lowerBound(int key) {
+            // Dernier échantillon < key : la réponse est dans son bloc (ou au début du suivant).
+            int j = firstSampleAtLeast(key, false) - 1;
+            if (j < 0) return 0;
+            int from = j * stride;
+            return SortedSearch.lowerBound(reader, from, Math.min(reader.size(), from + stride), key);
+        }
+
+        public int upperBound(int key) {
+            int j = firstSampleAtLeast(key, true) - 1;
+            if (j < 0) return 0;
+            int from = j * stride;
+            return SortedSearch.upperBound(reader, from, Math.min(reader.size(), from + stride), key);
+        }
+
+        public int indexOf(int key) {
+            int i = lowerBound(key);
+            return (i < reader.size() && reader.get(i) == key) ? i : -1;
+        }
+
+        // Premier échantillon >= key (strict=false) ou > key (strict=true).
+        private int firstSampleAtLeast(int key, boolean strict) {
+            int lo = 0, hi = samples.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int s = samples[mid];
+                if (strict ? s <= key : s < key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.compress.intpack;
+
+import java.util.Arrays;
+
+
+/**
+ * Opérations ensemblistes sur deux buffers compressés triés (listes de postings) :
+ * intersect, union, difference (a \ b), et variantes *Count qui ne matérialisent rien.
+ *
+ * Les entrées sont lues via get() sans être décompressées ; l'intersection et la
+ * différence parcourent une liste et cherchent dans l'autre par galop
+ * (SortedSearch.gallop), ce qui saute des blocs entiers quand les listes sont
+ * de tailles très différentes. Le résultat est recompressé dans la variante demandée.
+ *
+ * Sémantique ensembliste : les entrées sont supposées triées (ordre signé), les
+ * doublons sont fusionnés dans le résultat.
+ */
+public final class SortedSets {
+    private SortedSets() {}
+
+    public static int[] intersect(int[] a, int[] b, CompressionType outType) {
+        IntList out = new IntList();
+        intersect(new PackedReader(a), new PackedReader(b), out);
+        return out.compress(outType);
+    }
+
+    public static int[] union(int[] a, int[] b, CompressionType outType) {
+        IntList out = new IntList();
+        union(new PackedReader(a), new PackedReader(b), out);
+        return out.compress(outType);
+    }
+
+    public static int[] difference(int[] a, int[] b, CompressionType outType) {
+        IntList out = new IntList();
+        difference(new PackedReader(a), new PackedReader(b), out);
+        return out.compress(outType);
+    }
+
+    public static int intersectCount(int[] a, int[] b) {
+        Counter c = new Counter();
+        intersect(new PackedReader(a), new PackedReader(b), c);
+        return c.count;
+    }
+
+    public static int unionCount(int[] a, int[] b) {
+        Counter c = new Counter();
+        union(new PackedReader(a), new PackedReader(b), c);
+        return c.count;
+    }
+
+    public static int differenceCount(int[] a, int[] b) {
+        Counter c = new Counter();
+        difference(new PackedReader(a), new PackedReader(b), c);
+        return c.count;
+    }
+
+    // --- algorithmes (partagés entre mode résultat et mode comptage) ---
+
+    private interface Sink { void add(int v); }
+
+    private static void intersect(PackedReader a, PackedReader b, Sink out) {
+        // On itère sur la plus petite liste et on galope dans la plus grande.
+        PackedReader small = (a.size() <= b.size()) ? a : b;
+        PackedReader large = (small == a) ? b : a;
+        int n = small.size(), m = large.size();
+        int j = 0, prev = 0;
+        for (int i = 0; i < n && j < m; i++) {
+            int x = small.get(i);
+            if (i > 0 && x == prev) continue;
+            prev = x;
+            j = SortedSearch.gallop(large, j, x);
+            if (j < m && large.get(j) == x) out.add(x);
+        }
+    }
+
+    private static void difference(PackedReader a, PackedReader b, Sink out) {
+        int n = a.size(), m = b.size();
+        int j = 0, prev = 0;
+        for (int i = 0; i < n; i++) {
+            int x = a.get(i);
+            if (i > 0 && x == prev) continue;
+            prev = x;
+            if (j < m) j = SortedSearch.gallop(b, j, x);
+            if (j >= m || b.get(j) != x) out.add(x);
+        }
+    }
+
+    private static void union(PackedReader a, PackedReader b, Sink out) {
+        int n = a.size(), m = b.size();
+        int i = 0, j = 0;
+        boolean any = false;
+        int last = 0;
+        while (i < n || j < m) {
+            int x;
+            if (j >= m) x = a.get(i++);
+            else if (i >= n) x = b.get(j++);
+            else {
+                int va = a.get(i), vb = b.get(j);
+                if (va <= vb) { x = va; i++; } else { x = vb; j++; }
+            }
+            if (!any || x != last) { out.add(x); last = x; any = true; }
+        }
+    }
+
+    private static final class Counter implements Sink {
+        int count;
+        @Override public void add(int v) { count++; }
+    }
+
+    private static final class IntList implements Sink {
+        int[] values = new int[16];
+        int size;
+
+        @Override
+        public void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size << 1);
+            values[size++] = v;
+        }
+
+        int[] compress(CompressionType type) {
+            return CompressorFactory.create(type, null).compress(Arrays.copyOf(values, size));
+        }
+    }
+}
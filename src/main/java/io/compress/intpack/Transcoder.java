@@ -0,0 +1,193 @@
+package io.compress.intpack;
+
+
+/**
+ * Conversion directe d'un buffer compressé vers une autre variante ou un autre k,
+ * sans passer par le tableau décompressé complet.
+ *
+ * La source est lue par groupes de GROUP valeurs (decompress de plage dans un scratch
+ * borné) et la cible CROSSING / NO_CROSSING est écrite directement à sa position :
+ * mémoire auxiliaire O(GROUP) au lieu de O(n). Toutes les variantes source ont un
+ * décodage de plage séquentiel (positionnement une fois par groupe, puis flux).
+ * Si k n'est pas imposé, il faut le max (même règle que compress) : lu dans le layout
+ * pour ELIAS_FANO (dernière valeur) et DICTIONARY (dernière entrée de la table triée),
+ * sinon calculé par une première passe de décodage par groupes.
+ * Les autres variantes cibles ont besoin de statistiques globales ou d'un layout
+ * à plusieurs zones : elles passent encore par decompress + compress.
+ *
+ * Le résultat est identique à create(targetType, opts).compress(valeurs), sauf qu'une
+ * valeur qui ne tient pas sur k bits (négative avec k < 32 compris) est refusée
+ * au lieu d'être tronquée.
+ *
+ * concat / slice travaillent directement sur les bits packés des variantes à largeur
+ * fixe (CROSSING, NO_CROSSING) : à k égal, CROSSING copie des blocs de 32 bits décalés
+ * (copie de words entiers pour NO_CROSSING quand les slots sont alignés) ; à k différents,
+ * seule la partie la plus étroite est élargie valeur par valeur.
+ */
+public final class Transcoder {
+    static final int GROUP = 1024;
+
+    private Transcoder() {}
+
+    /** Re-packe compressed en targetType sur targetK bits (targetK <= 0 : k automatique). */
+    public static int[] transcode(int[] compressed, CompressionType targetType, int targetK) {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        opts.k = targetK;
+        return transcode(compressed, targetType, opts);
+    }
+
+    /** Variante avec options de la cible (k, compactHeader...). */
+    public static int[] transcode(int[] compressed, CompressionType targetType, CompressorFactory.Options opts) {
+        if (compressed == null) throw new IllegalArgumentException("compressed null");
+        if (targetType == null) throw new IllegalArgumentException("type null");
+        if (opts == null) opts = new CompressorFactory.Options();
+        if (opts.k > 32) throw new IllegalArgumentException("k doit être <= 32");
+        final IntCompressor source = CompressorFactory.create(Headers.mode(compressed), null);
+        final int n = Headers.n(compressed);
+        if (targetType != CompressionType.CROSSING && targetType != CompressionType.NO_CROSSING) {
+            int[] values = new int[n];
+            source.decompress(compressed, values);
+            return CompressorFactory.create(targetType, opts).compress(values);
+        }
+
+        final int[] scratch = new int[Math.max(1, Math.min(GROUP, n))];
+        int k = opts.k;
+        if (k <= 0) {
+            int max = knownMax(compressed, source, n);
+            if (max < 0) {
+                max = 0;
+                for (int from = 0; from < n; from += scratch.length) {
+                    int len = Math.min(scratch.length, n - from);
+                    source.decompress(compressed, from, scratch, 0, len);
+                    for (int i = 0; i < len; i++) if (scratch[i] > max) max = scratch[i];
+                }
+            }
+            k = Math.min(32, Math.max(1, BitPackingBase.ceilLog2(max + 1)));
+        }
+
+        final boolean crossing = targetType == CompressionType.CROSSING;
+        final int per = BitPackingBase.perWordNoCrossing(k);
+        int[] out = alloc(targetType, n, k);
+        long bitPos = (long) Headers.HEADER_WORDS << 5;
+        int w = Headers.HEADER_WORDS;
+        int cnt = 0, cur = 0;
+        for (int from = 0; from < n; from += scratch.length) {
+            int len = Math.min(scratch.length, n - from);
+            source.decompress(compressed, from, scratch, 0, len);
+            for (int i = 0; i < len; i++) {
+                int v = scratch[i];
+                if (k < 32 && (v >>> k) != 0)
+                    throw new IllegalArgumentException("valeur " + v + " à l'indice " + (from + i) + " trop large pour k=" + k);
+                if (crossing) {
+                    BitIO.writeBitsLSB(out, bitPos, k, v);
+                    bitPos += k;
+                } else {
+                    cur = BitIO.writeBitsInWordLSB(cur, cnt * k, k, v);
+                    if (++cnt == per) { out[w++] = cur; cnt = 0; cur = 0; }
+                }
+            }
+        }
+        if (cnt != 0) out[w] = cur; // dernier mot partiellement rempli
+        return opts.compactHeader ? Headers.toCompact(out) : out;
+    }
+
+    // Max (>= 0) des valeurs quand le layout de la source le donne directement, -1 sinon.
+    private static int knownMax(int[] compressed, IntCompressor source, int n) {
+        if (n == 0) return 0;
+        switch (Headers.mode(compressed)) {
+            case ELIAS_FANO: return source.get(compressed, n - 1); // suite non décroissante
+            case DICTIONARY: return Math.max(0, compressed[Headers.checkMagic(compressed) + Headers.extraA(compressed) - 1]);
+            default: return -1;
+        }
+    }
+
+    /**
+     * Concatène des buffers CROSSING / NO_CROSSING en un seul, de la variante du premier,
+     * avec k = le plus grand k des parties.
+     */
+    public static int[] concat(int[]... parts) {
+        if (parts == null || parts.length == 0) throw new IllegalArgumentException("aucun buffer à concaténer");
+        Packed[] ps = new Packed[parts.length];
+        long n = 0;
+        int k = 1;
+        for (int i = 0; i < parts.length; i++) {
+            ps[i] = new Packed(parts[i]);
+            n += ps[i].n;
+            k = Math.max(k, ps[i].k);
+        }
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException("concat: plus de 2^31 valeurs");
+        int[] out = alloc(ps[0].type, (int) n, k);
+        int at = 0;
+        for (Packed p : ps) {
+            copy(p, 0, p.n, out, ps[0].type, k, at);
+            at += p.n;
+        }
+        return out;
+    }
+
+    /** Valeurs [from, to) d'un buffer CROSSING / NO_CROSSING, même variante et même k. */
+    public static int[] slice(int[] compressed, int from, int to) {
+        Packed p = new Packed(compressed);
+        if (from < 0 || to < from || to > p.n) throw new IndexOutOfBoundsException();
+        int[] out = alloc(p.type, to - from, p.k);
+        copy(p, from, to - from, out, p.type, p.k, 0);
+        return out;
+    }
+
+    /** Vue en lecture d'un buffer à largeur fixe (header standard ou compact). */
+    private static final class Packed {
+        final int[] c;
+        final CompressionType type;
+        final int base, n, k, per;
+
+        Packed(int[] c) {
+            if (c == null) throw new IllegalArgumentException("compressed null");
+            this.c = c;
+            this.type = Headers.mode(c);
+            if (type != CompressionType.CROSSING && type != CompressionType.NO_CROSSING)
+                throw new IllegalArgumentException("concat/slice : CROSSING ou NO_CROSSING uniquement, pas " + type);
+            this.base = Headers.checkMagic(c);
+            this.n = Headers.n(c);
+            this.k = Headers.k(c);
+            this.per = BitPackingBase.perWordNoCrossing(k);
+        }
+
+        int get(int i) {
+            if (type == CompressionType.CROSSING) return BitIO.readBitsLSB(c, ((long) base << 5) + (long) i * k, k);
+            return BitIO.readBitsInWordLSB(c[base + i / per], (i % per) * k, k);
+        }
+    }
+
+    private static int[] alloc(CompressionType type, int n, int k) {
+        int per = BitPackingBase.perWordNoCrossing(k);
+        int[] out = (type == CompressionType.CROSSING)
+                ? BitPackingBase.allocWithHeader(Headers.HEADER_WORDS, (long) n * k)
+                : new int[BitPackingBase.checkedWords(Headers.HEADER_WORDS + ((long) n + per - 1) / per)];
+        Headers.write(out, n, type, k, 0, 0, 0);
+        return out;
+    }
+
+    // Copie les valeurs [from, from + len) de src aux indices [at, at + len) de out (type, k).
+    private static void copy(Packed src, int from, int len, int[] out, CompressionType type, int k, int at) {
+        final int base = Headers.HEADER_WORDS;
+        final int per = BitPackingBase.perWordNoCrossing(k);
+        int i = 0;
+        if (src.type == type && src.k == k) {
+            if (type == CompressionType.CROSSING) {
+                BitIO.copyBits(src.c, ((long) src.base << 5) + (long) from * k, out, ((long) base << 5) + (long) at * k, (long) len * k);
+                return;
+            }
+            if (from % per == 0 && at % per == 0) {
+                int words = len / per;
+                System.arraycopy(src.c, src.base + from / per, out, base + at / per, words);
+                i = words * per;
+            }
+        }
+        for (; i < len; i++) {
+            int v = src.get(from + i);
+            int j = at + i;
+            if (type == CompressionType.CROSSING) BitIO.writeBitsLSB(out, ((long) base << 5) + (long) j * k, k, v);
+            else out[base + j / per] = BitIO.writeBitsInWordLSB(out[base + j / per], (j % per) * k, k, v);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class BatchCompressTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void compressesTreeAndReportsFailures() throws Exception {
+        Path in = tmp.resolve("in");
+        Path out = tmp.resolve("out");
+        Files.createDirectories(in.resolve("sub"));
+        Random rnd = new Random(39);
+        int[][] arrays = new int[12][];
+        for (int f = 0; f < arrays.length; f++) {
+            arrays[f] = new int[1000 + f * 100];
+            for (int i = 0; i < arrays[f].length; i++) arrays[f][i] = rnd.nextInt(1 << 10);
+            DataIO.saveIntArray(in.resolve((f % 2 == 0 ? "" : "sub/") + "a" + f + ".bin").toFile(), arrays[f]);
+        }
+        Files.writeString(in.resolve("broken.txt"), "12\nnot-a-number\n");
+
+        BatchCompress.Summary s = BatchCompress.run(in, out, CompressionType.CROSSING, 2, 3);
+        assertEquals(12, s.files());
+        assertEquals(1, s.failed());
+        assertTrue(s.ratio() < 0.4);
+
+        DataIO.Compressed c = DataIO.loadCompressed(out.resolve("sub/a3.bin.comp.bin").toFile());
+        int[] back = new int[c.origLength];
+        CompressorFactory.create(CompressionType.values()[c.compressorOrdinal], null).decompress(c.data, back);
+        assertArrayEquals(arrays[3], back);
+    }
+}
@@ -59,7 +59,8 @@ public class BenchCLITest {
 
         List<String> lines = Files.readAllLines(csv);
         check(!lines.isEmpty(), "CSV should have header");
-        if (!"variant,base_words,words,ratio,k_eff_bits_per_val,comp_median_ms,comp_iqr_ms,decomp_median_ms,decomp_iqr_ms".equals(lines.get(0))) {
+        if (!("variant,base_words,words,ratio,k_eff_bits_per_val,comp_median_ms,comp_iqr_ms,decomp_median_ms,decomp_iqr_ms,"
+                + "comp_alloc_bytes_per_op,decomp_alloc_bytes_per_op,gc_count,gc_time_ms").equals(lines.get(0))) {
             throw new IllegalStateException("Unexpected CSV header: " + lines.get(0));
         }
         String all = Files.readString(ascii);
@@ -87,14 +88,88 @@ public class BenchCLITest {
         check(Files.exists(csv) && Files.size(csv) > 0, "CSV should be created for binary input as well");
     }
 
+    public static void testGetOpsColumns() throws Exception {
+        Path csv = Files.createTempFile("benchcli-get-", ".csv");
+        Path ascii = Files.createTempFile("benchcli-get-table-", ".txt");
+        String[] args = new String[]{
+                "--n", "5000",
+                "--runs", "1",
+                "--variants", "CROSSING,OVERFLOW",
+                "--get-ops", "2000",
+                "--csv", csv.toString(),
+                "--table-out", ascii.toString()
+        };
+        BenchCLI.main(args);
+        List<String> lines = Files.readAllLines(csv);
+        String expected = "variant,base_words,words,ratio,k_eff_bits_per_val,comp_median_ms,comp_iqr_ms,decomp_median_ms,decomp_iqr_ms,"
+                + "comp_alloc_bytes_per_op,decomp_alloc_bytes_per_op,gc_count,gc_time_ms,"
+                + "seq_ns_op,seq_p50_ns,seq_p99_ns,seq_p999_ns,"
+                + "uniform_ns_op,uniform_p50_ns,uniform_p99_ns,uniform_p999_ns,"
+                + "zipf_ns_op,zipf_p50_ns,zipf_p99_ns,zipf_p999_ns";
+        check(expected.equals(lines.get(0)), "Unexpected CSV header: " + lines.get(0));
+        check(lines.size() == 3, "Unexpected CSV rows: " + lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            String[] cols = line.split(",", -1);
+            check(cols.length == 25, "Unexpected column count: " + line);
+            for (int a = 0; a < 3; a++) { // par motif : p50 <= p99 <= p999
+                long p50 = Long.parseLong(cols[14 + 4 * a]), p99 = Long.parseLong(cols[15 + 4 * a]), p999 = Long.parseLong(cols[16 + 4 * a]);
+                check(Double.parseDouble(cols[13 + 4 * a]) > 0 && p50 <= p99 && p99 <= p999, "Unexpected get columns: " + line);
+            }
+        }
+        String all = Files.readString(ascii);
+        check(all.contains("zipf_p999_ns") && all.contains("_ns_op"), "ASCII should contain get headers and legend");
+    }
+
+    public static void testThreadScalingCsv() throws Exception {
+        Path csv = Files.createTempFile("benchcli-scaling-", ".csv");
+        String[] args = new String[]{
+                "--n", "20000",
+                "--runs", "1",
+                "--variants", "CROSSING,OVERFLOW",
+                "--threads", "2",
+                "--duration", "0.05",
+                "--scaling-csv", csv.toString()
+        };
+        BenchCLI.main(args);
+        List<String> lines = Files.readAllLines(csv);
+        check(lines.get(0).startsWith("variant,workload,threads,agg_mvalues_per_s"), "Unexpected scaling CSV header: " + lines.get(0));
+        // 2 variantes x 3 workloads x {1, 2} threads
+        check(lines.size() == 1 + 2 * 3 * 2, "Unexpected scaling CSV rows: " + lines.size());
+        check(lines.get(1).startsWith("CROSSING,COMPRESS,1,") && lines.get(1).split(",")[7].equals("1.000"), "Single-thread efficiency should be 1: " + lines.get(1));
+        check(lines.get(0).endsWith(",output") && lines.get(1).endsWith(",private"), "Unexpected output column: " + lines.get(1));
+    }
+
+    public static void testSharedOutputScalingRows() throws Exception {
+        Path csv = Files.createTempFile("benchcli-scaling-", ".csv");
+        String[] args = new String[]{
+                "--n", "20000",
+                "--runs", "1",
+                "--variants", "CROSSING",
+                "--threads", "2",
+                "--duration", "0.05",
+                "--repeats", "1",
+                "--shared-output",
+                "--scaling-csv", csv.toString()
+        };
+        BenchCLI.main(args);
+        List<String> lines = Files.readAllLines(csv);
+        // private : 3 workloads x {1, 2} ; shared : DECOMPRESS et GET x {1, 2}
+        check(lines.size() == 1 + 3 * 2 + 2 * 2, "Unexpected scaling CSV rows: " + lines.size());
+        check(lines.get(7).startsWith("CROSSING,DECOMPRESS,1,") && lines.get(7).endsWith(",shared"), "Unexpected shared row: " + lines.get(7));
+        check(lines.get(10).startsWith("CROSSING,GET,2,") && lines.get(10).endsWith(",shared"), "Unexpected shared row: " + lines.get(10));
+    }
+
     private static void check(boolean cond, String msg) {
         if (!cond) throw new IllegalStateException(msg);
     }
 
     public static void main(String[] args) throws Exception {
-        // Exécution manuelle des deux scénarios pour un smoke test local
+        // Exécution manuelle des scénarios pour un smoke test local
         testTextInputProducesCsvAndAscii();
         testBinaryInputAlsoWorks();
+        testGetOpsColumns();
+        testThreadScalingCsv();
+        testSharedOutputScalingRows();
         System.out.println("BenchCLITest manual run: OK");
     }
 }
@@ -0,0 +1,98 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+public class BlockCacheTest {
+
+    @Test
+    public void rangeDecompressMatchesGet() {
+        Random rnd = new Random(36);
+        int[] data = new int[1000];
+        for (int i = 0; i < data.length; i++) data[i] = (i % 50 == 0) ? -rnd.nextInt(1000) : rnd.nextInt(300);
+        for (CompressionType t : new CompressionType[]{CompressionType.OVERFLOW, CompressionType.STREAM_VBYTE,
+                CompressionType.SIMPLE8B, CompressionType.RLE, CompressionType.DICTIONARY}) {
+            IntCompressor c = CompressorFactory.create(t, null);
+            int[] comp = c.compress(data);
+            int[] dst = new int[300];
+            c.decompress(comp, 333, dst, 10, 290);
+            for (int i = 0; i < 290; i++) assertEquals(data[333 + i], dst[10 + i], t.name());
+            assertThrows(IndexOutOfBoundsException.class, () -> c.decompress(comp, 900, dst, 0, 200));
+        }
+        int[] small = new int[1000];
+        for (int i = 0; i < small.length; i++) small[i] = rnd.nextInt(1 << 7);
+        for (CompressionType t : new CompressionType[]{CompressionType.CROSSING, CompressionType.NO_CROSSING}) {
+            IntCompressor c = CompressorFactory.create(t, null);
+            int[] comp = c.compress(small);
+            int[] dst = new int[777];
+            c.decompress(comp, 223, dst, 0, 777);
+            for (int i = 0; i < dst.length; i++) assertEquals(small[223 + i], dst[i], t.name());
+        }
+    }
+
+    @Test
+    public void rangeDecompressMatchesFullDecodeForAllVariants() {
+        Random rnd = new Random(360);
+        int[] data = new int[5000];
+        int v = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (rnd.nextInt(10) == 0) v += (rnd.nextInt(20) == 0) ? rnd.nextInt(1 << 20) : rnd.nextInt(40);
+            data[i] = v; // triée avec des runs : toutes les variantes s'appliquent
+        }
+        for (CompressionType t : CompressionType.values()) {
+            IntCompressor c = CompressorFactory.create(t, null);
+            int[] comp = c.compress(data);
+            for (int r = 0; r < 200; r++) {
+                int from = rnd.nextInt(data.length);
+                int len = rnd.nextInt(Math.min(700, data.length - from) + 1);
+                int[] dst = new int[len + 3];
+                c.decompress(comp, from, dst, 3, len);
+                for (int i = 0; i < len; i++) assertEquals(data[from + i], dst[3 + i], t + " [" + from + "+" + i + "]");
+            }
+            int[] all = new int[data.length];
+            c.decompress(comp, 0, all, 0, data.length);
+            assertArrayEquals(data, all, t.name());
+            c.decompress(comp, data.length, all, 0, 0);
+            assertThrows(IndexOutOfBoundsException.class, () -> c.decompress(comp, data.length - 5, all, 0, 6));
+        }
+    }
+
+    @Test
+    public void skewedAccessHitsAndStaysBounded() {
+        Random rnd = new Random(7);
+        int[] data = new int[100_000];
+        for (int i = 0; i < data.length; i++) data[i] = (i % 97 == 0) ? rnd.nextInt() : rnd.nextInt(1 << 10);
+        int[] comp = CompressorFactory.create(CompressionType.OVERFLOW, null).compress(data);
+        BlockCache cache = BlockCache.forBuffer(comp, 256, 16 * 1024);
+        for (int r = 0; r < 20_000; r++) {
+            int i = (r % 10 == 0) ? rnd.nextInt(data.length) : rnd.nextInt(2048); // zone chaude
+            assertEquals(data[i], cache.get(i));
+        }
+        assertTrue(cache.hits() > cache.misses());
+        assertTrue(cache.evictions() > 0);
+        assertTrue(cache.cachedValues() <= 16 * 1024);
+        cache.clear();
+        assertEquals(0, cache.cachedValues());
+    }
+
+    @Test
+    public void budgetBelowOneBlockPerStripeIsStillGlobal() {
+        Random rnd = new Random(16);
+        int[] data = new int[50_000];
+        for (int i = 0; i < data.length; i++) data[i] = rnd.nextInt(1 << 12);
+        int[] comp = CompressorFactory.create(CompressionType.CROSSING, null).compress(data);
+        BlockCache cache = BlockCache.forBuffer(comp, 256, 1000); // < 16 x 256
+        for (int r = 0; r < 5_000; r++) {
+            int i = rnd.nextInt(data.length);
+            assertEquals(data[i], cache.get(i));
+            assertTrue(cache.cachedValues() <= 1000, "cachedValues=" + cache.cachedValues());
+        }
+        assertTrue(cache.evictions() > 0);
+
+        BlockCache tiny = BlockCache.forBuffer(comp, 256, 100); // bloc plus grand que le budget
+        for (int i = 0; i < 2_000; i += 7) assertEquals(data[i], tiny.get(i));
+        assertEquals(0, tiny.cachedValues());
+    }
+}
@@ -0,0 +1,95 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+public class ByteBufferApiTest {
+
+    private static int[] sortedData(int n) {
+        Random rnd = new Random(33);
+        int[] a = new int[n];
+        int v = 0;
+        for (int i = 0; i < n; i++) { v += (rnd.nextInt(100) < 95) ? rnd.nextInt(4) : rnd.nextInt(1 << 16); a[i] = v; }
+        return a; // triée, pour que toutes les variantes (ELIAS_FANO incluse) s'appliquent
+    }
+
+    @Test
+    public void directBufferRoundtripAndGetForAllVariants() {
+        int[] data = sortedData(3000);
+        for (CompressionType type : CompressionType.values()) {
+            IntCompressor c = CompressorFactory.create(type, null);
+            int[] ref = c.compress(data);
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(ref.length * 4 + 16);
+            direct.position(16); // le buffer compressé ne commence pas forcément à 0
+            int bytes = c.compress(data, direct);
+            assertEquals(ref.length * 4, bytes, type.name());
+            assertEquals(16 + bytes, direct.position());
+            direct.flip().position(16);
+
+            int[] out = new int[data.length];
+            c.decompress(direct, out);
+            assertArrayEquals(data, out, type.name());
+            for (int i = 0; i < data.length; i += 13) assertEquals(data[i], c.get(direct, i), type + " get " + i);
+            assertEquals(data[data.length - 1], c.get(direct, data.length - 1));
+            assertEquals(16, direct.position(), "get/decompress ne déplacent pas la position");
+            assertThrows(IndexOutOfBoundsException.class, () -> c.get(direct, data.length));
+        }
+    }
+
+    @Test
+    public void rangeDecodeFromBufferAndIntoDirectDestination() {
+        int[] data = sortedData(5000);
+        Random rnd = new Random(330);
+        for (CompressionType type : CompressionType.values()) {
+            CompressorFactory.Options opts = new CompressorFactory.Options();
+            opts.compactHeader = type.ordinal() % 2 == 1; // les deux formats de header
+            IntCompressor c = CompressorFactory.create(type, opts);
+            int[] ref = c.compress(data);
+            ByteBuffer src = ByteBuffer.allocateDirect(ref.length * 4);
+            c.compress(data, src);
+            src.flip();
+
+            for (int r = 0; r < 50; r++) {
+                int from = rnd.nextInt(data.length);
+                int len = rnd.nextInt(Math.min(600, data.length - from) + 1);
+                int[] dst = new int[len];
+                c.decompress(src, from, dst, 0, len);
+                for (int i = 0; i < len; i++) assertEquals(data[from + i], dst[i], type + " [" + from + "+" + i + "]");
+            }
+
+            ByteBuffer out = ByteBuffer.allocateDirect(8 + data.length * 4).order(ByteOrder.BIG_ENDIAN);
+            out.position(8);
+            assertEquals(data.length * 4, c.decompress(src, out), type.name());
+            assertEquals(8 + data.length * 4, out.position());
+            assertEquals(0, src.position());
+            IntBuffer values = out.duplicate().position(8).order(IntCompressor.BYTE_ORDER).asIntBuffer();
+            for (int i = 0; i < data.length; i++) assertEquals(data[i], values.get(i), type + " ByteBuffer -> ByteBuffer");
+
+            ByteBuffer out2 = ByteBuffer.allocate(data.length * 4);
+            c.decompress(ref, out2);
+            assertEquals(out2.capacity(), out2.position());
+            out2.flip().order(IntCompressor.BYTE_ORDER);
+            for (int i = 0; i < data.length; i++) assertEquals(data[i], out2.getInt(i * 4), type + " int[] -> ByteBuffer");
+            assertThrows(IllegalArgumentException.class, () -> c.decompress(src, ByteBuffer.allocate(data.length * 4 - 4)));
+        }
+    }
+
+    @Test
+    public void byteOrderIsLittleEndianWhateverTheCallerOrder() {
+        int[] data = {1, 2, 3, 1024, 4, 5, 2048};
+        IntCompressor c = CompressorFactory.create(CompressionType.OVERFLOW, null);
+        ByteBuffer bigEndian = ByteBuffer.allocate(256).order(ByteOrder.BIG_ENDIAN);
+        c.compress(IntBuffer.wrap(data), bigEndian);
+        bigEndian.flip();
+        assertEquals(ByteOrder.BIG_ENDIAN, bigEndian.order());
+        int[] words = c.compress(data);
+        assertEquals(words[0], bigEndian.duplicate().order(IntCompressor.BYTE_ORDER).getInt(0));
+        for (int i = 0; i < data.length; i++) assertEquals(data[i], c.get(bigEndian, i));
+    }
+}
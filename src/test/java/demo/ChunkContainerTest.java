@@ -0,0 +1,130 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ChunkContainerTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void appendThenReadRanges() throws Exception {
+        Random rnd = new Random(35);
+        int[] a = new int[3000];
+        for (int i = 0; i < a.length; i++) a[i] = rnd.nextInt(1 << 12);
+        int[] b = new int[2000];
+        for (int i = 0; i < b.length; i++) b[i] = i / 500;
+        int[] c = new int[1000];
+        for (int i = 0; i < c.length; i++) c[i] = rnd.nextInt();
+
+        Path file = tmp.resolve("col.icnt");
+        try (ChunkContainer.Writer w = ChunkContainer.create(file)) {
+            w.append(a, CompressionType.CROSSING);
+            w.append(b, CompressionType.RLE);
+        }
+        try (ChunkContainer.Writer w = ChunkContainer.append(file)) {
+            assertEquals(5000, w.size());
+            w.append(c, CompressionType.STREAM_VBYTE);
+        }
+
+        int[] all = new int[6000];
+        System.arraycopy(a, 0, all, 0, 3000);
+        System.arraycopy(b, 0, all, 3000, 2000);
+        System.arraycopy(c, 0, all, 5000, 1000);
+        try (ChunkContainer.Reader r = ChunkContainer.open(file)) {
+            assertEquals(6000, r.size());
+            assertEquals(3, r.chunkCount());
+            ChunkContainer.ChunkInfo info = r.chunk(1);
+            assertEquals(3000, info.firstIndex());
+            assertEquals(CompressionType.RLE, info.type());
+            assertEquals(0, info.min());
+            assertEquals(3, info.max());
+            for (int i = 0; i < all.length; i += 13) assertEquals(all[i], r.get(i));
+            int[] dst = new int[2500];
+            r.read(2800, dst, 0, 2500); // chevauche les trois chunks
+            for (int i = 0; i < dst.length; i++) assertEquals(all[2800 + i], dst[i]);
+            assertArrayEquals(c, r.readChunk(2));
+            assertThrows(IndexOutOfBoundsException.class, () -> r.get(6000));
+        }
+    }
+
+    @Test
+    public void unclosedAppendKeepsPublishedChunksReadable() throws Exception {
+        int[] a = new int[1500];
+        for (int i = 0; i < a.length; i++) a[i] = i * 7;
+        int[] b = new int[800];
+        Arrays.fill(b, 42);
+        Path file = tmp.resolve("crash.icnt");
+        try (ChunkContainer.Writer w = ChunkContainer.create(file)) {
+            w.append(a, CompressionType.CROSSING);
+        }
+
+        ChunkContainer.Writer w = ChunkContainer.append(file);
+        try {
+            w.append(b, CompressionType.RLE); // écrit mais pas encore publié : « crash » ici
+            try (ChunkContainer.Reader r = ChunkContainer.open(file)) {
+                assertEquals(1, r.chunkCount());
+                assertArrayEquals(a, r.readChunk(0));
+            }
+            w.commit();
+            try (ChunkContainer.Reader r = ChunkContainer.open(file)) {
+                assertEquals(2, r.chunkCount());
+                assertEquals(42, r.get(2000));
+            }
+        } finally {
+            w.close();
+        }
+        // Arrêt brutal d'un writer au milieu d'un chunk : octets orphelins en fin de fichier.
+        Files.write(file, new byte[] {1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+        try (ChunkContainer.Writer w2 = ChunkContainer.append(file)) {
+            assertEquals(2300, w2.size());
+        }
+        try (ChunkContainer.Reader r = ChunkContainer.open(file)) {
+            assertEquals(2300, r.size());
+            int[] dst = new int[10];
+            r.read(1495, dst, 0, 10);
+            for (int i = 0; i < 5; i++) assertEquals(a[1495 + i], dst[i]);
+            for (int i = 5; i < 10; i++) assertEquals(42, dst[i]);
+        }
+    }
+
+    @Test
+    public void corruptFooterModeIsAnIOException() throws Exception {
+        Path file = tmp.resolve("corrupt.icnt");
+        try (ChunkContainer.Writer w = ChunkContainer.create(file)) {
+            w.append(new int[] {1, 2, 3}, CompressionType.CROSSING);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int modePos = (int) bb.getLong(8) + 4 + 32; // [offset][bytes][first][count][min][max] puis mode|k<<8
+        bytes[modePos] = (byte) 0xEE;
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ChunkContainer.open(file));
+    }
+
+    @Test
+    public void nonContiguousFirstIndexIsAnIOException() throws Exception {
+        Path file = tmp.resolve("gap.icnt");
+        try (ChunkContainer.Writer w = ChunkContainer.create(file)) {
+            w.append(new int[] {1, 2, 3}, CompressionType.CROSSING);
+            w.append(new int[] {4, 5}, CompressionType.CROSSING);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer bb = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int second = (int) bb.getLong(8) + 4 + 36; // deuxième entrée du footer
+        bb.putLong(second + 12, 7L);               // firstIndex = 7 au lieu de 3
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> ChunkContainer.open(file));
+    }
+}
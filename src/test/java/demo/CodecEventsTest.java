@@ -0,0 +1,43 @@
+package demo;
+
+import io.compress.intpack.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.file.Path;
+import java.util.List;
+
+public class CodecEventsTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void eventsAreRecordedOnlyWhenEnabled() throws Exception {
+        int[] data = new int[500];
+        for (int i = 0; i < data.length; i++) data[i] = (i % 50 == 0) ? -i - 1 : i % 8;
+        IntCompressor c = CompressorFactory.create(CompressionType.OVERFLOW, null);
+
+        Path file = tmp.resolve("codec.jfr");
+        try (Recording r = new Recording()) {
+            r.enable("io.compress.intpack.Compress");
+            r.enable("io.compress.intpack.OverflowPlan");
+            r.start();
+            int[] comp = c.compress(data);
+            c.decompress(comp, new int[data.length]); // Decompress non activé
+            r.stop();
+            r.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent compress = events.stream()
+                .filter(e -> e.getEventType().getName().equals("io.compress.intpack.Compress")).findFirst().orElseThrow();
+        assertEquals("OVERFLOW", compress.getString("variant"));
+        assertEquals(500, compress.getInt("n"));
+        assertEquals(10, compress.getInt("overflow"));
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("io.compress.intpack.OverflowPlan")));
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().equals("io.compress.intpack.Decompress")));
+    }
+}
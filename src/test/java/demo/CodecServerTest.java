@@ -0,0 +1,168 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+public class CodecServerTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    public void servesFileAndInlineRequests() throws Exception {
+        int[] data = new int[2000];
+        for (int i = 0; i < data.length; i++) data[i] = (i * 37) % 1000;
+        Path in = tmp.resolve("in.bin");
+        Path comp = tmp.resolve("in.comp");
+        DataIO.saveIntArray(in.toFile(), data);
+
+        try (CodecServer server = CodecServer.tcp(0, tmp).start();
+             Socket s = new Socket()) {
+            s.connect(server.address());
+            BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter w = new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8);
+
+            w.println("PING");
+            assertEquals("OK pong", r.readLine());
+            w.println("COMPRESS CROSSING in.bin " + comp);
+            assertTrue(r.readLine().startsWith("OK values=2000"));
+            w.println("GET in.comp 1234");
+            assertEquals("OK " + data[1234], r.readLine());
+            w.println("DECOMPRESS in.comp out.bin");
+            assertEquals("OK values=2000", r.readLine());
+            assertArrayEquals(data, DataIO.loadIntArray(tmp.resolve("out.bin").toFile()));
+
+            w.println("PACK NO_CROSSING 5 6 7 8");
+            String packed = r.readLine().substring(3);
+            w.println("UNPACK " + packed);
+            assertEquals("OK 5 6 7 8", r.readLine());
+            w.println("PEEK 2 " + packed);
+            assertEquals("OK 7", r.readLine());
+
+            w.println("GET in.comp 99999");
+            assertTrue(r.readLine().startsWith("ERR"));
+            w.println("STATS");
+            assertTrue(r.readLine().contains("errors=1"));
+        }
+    }
+
+    @Test
+    public void unixSocketIsOwnerOnly() throws Exception {
+        Path sock = tmp.resolve("codec.sock");
+        try (CodecServer server = CodecServer.unix(sock, tmp).start();
+             SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(sock)));
+            ch.connect(UnixDomainSocketAddress.of(sock));
+            BufferedReader r = new BufferedReader(new InputStreamReader(Channels.newInputStream(ch), StandardCharsets.UTF_8));
+            ch.write(ByteBuffer.wrap("PING\n".getBytes(StandardCharsets.UTF_8)));
+            assertEquals("OK pong", r.readLine());
+        }
+        assertFalse(Files.exists(sock));
+    }
+
+    @Test
+    public void filesOutsideTheRootAreRefused() throws Exception {
+        Path root = Files.createDirectory(tmp.resolve("root"));
+        DataIO.saveIntArray(tmp.resolve("outside.bin").toFile(), new int[]{1, 2, 3});
+        Files.createSymbolicLink(root.resolve("link"), tmp);
+        try (CodecServer server = CodecServer.tcp(0, root).start();
+             Socket s = new Socket()) {
+            s.connect(server.address());
+            BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter w = new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8);
+
+            w.println("COMPRESS CROSSING ../outside.bin a.comp");
+            assertTrue(r.readLine().startsWith("ERR chemin hors de la racine"));
+            w.println("COMPRESS CROSSING " + tmp.resolve("outside.bin") + " a.comp");
+            assertTrue(r.readLine().startsWith("ERR chemin hors de la racine"));
+            w.println("COMPRESS CROSSING link/outside.bin a.comp");
+            assertTrue(r.readLine().startsWith("ERR chemin hors de la racine"));
+            assertFalse(Files.exists(root.resolve("a.comp")));
+        }
+    }
+
+    @Test
+    public void inconsistentOriginalLengthIsAnError() throws Exception {
+        int[] comp = CompressorFactory.create(CompressionType.CROSSING, null).compress(new int[]{1, 2, 3});
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(tmp.resolve("bad.comp").toFile()))) {
+            dos.writeInt(CompressionType.CROSSING.ordinal());
+            dos.writeInt(Integer.MAX_VALUE - 8); // annonce bien plus que le n de l'en-tête
+            dos.writeInt(comp.length);
+            for (int v : comp) dos.writeInt(v);
+        }
+        try (CodecServer server = CodecServer.tcp(0, tmp)) {
+            assertTrue(server.handle("DECOMPRESS bad.comp out.bin").startsWith("ERR fichier compressé incohérent"));
+            assertFalse(Files.exists(tmp.resolve("out.bin")));
+        }
+    }
+
+    @Test
+    public void httpAndOverlongLinesCloseTheConnection() throws Exception {
+        try (CodecServer server = CodecServer.tcp(0, tmp).start()) {
+            try (Socket s = new Socket()) {
+                s.connect(server.address());
+                BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                s.getOutputStream().write(("POST / HTTP/1.1\r\nHost: 127.0.0.1\r\nContent-Type: text/plain\r\n\r\n"
+                        + "SHUTDOWN\n").getBytes(StandardCharsets.UTF_8));
+                assertClosed(r);
+            }
+            try (Socket s = new Socket()) {
+                s.connect(server.address());
+                BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                byte[] big = new byte[CodecServer.MAX_LINE + 1];
+                Arrays.fill(big, (byte) '1');
+                s.getOutputStream().write(big);
+                assertClosed(r);
+            }
+            try (Socket s = new Socket()) { // le démon tourne toujours
+                s.connect(server.address());
+                BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8).println("PING");
+                assertEquals("OK pong", r.readLine());
+            }
+        }
+    }
+
+    @Test
+    public void closeDropsLiveConnections() throws Exception {
+        CodecServer server = CodecServer.tcp(0, tmp).start();
+        try (Socket s = new Socket()) {
+            s.connect(server.address());
+            BufferedReader r = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter w = new PrintWriter(s.getOutputStream(), true, StandardCharsets.UTF_8);
+            w.println("PING");
+            assertEquals("OK pong", r.readLine());
+            server.close();
+            assertClosed(r);
+        }
+    }
+
+    // Fermeture côté serveur : fin de flux, ou reset si des octets non lus restaient.
+    private static void assertClosed(BufferedReader r) throws IOException {
+        try {
+            assertNull(r.readLine());
+        } catch (SocketException e) {
+            // reset : connexion fermée aussi
+        }
+    }
+}
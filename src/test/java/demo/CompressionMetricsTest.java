@@ -0,0 +1,46 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public class CompressionMetricsTest {
+
+    @Test
+    public void listenerRecordsCallsAndExposesJmx() throws Exception {
+        CompressionMetrics metrics = new CompressionMetrics();
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        opts.listener = metrics;
+
+        int[] data = new int[1000];
+        for (int i = 0; i < data.length; i++) data[i] = (i % 100 == 0) ? 1 << 30 : i % 16;
+        IntCompressor c = CompressorFactory.create(CompressionType.OVERFLOW, opts);
+        int[] comp = c.compress(data);
+        int[] out = new int[data.length];
+        c.decompress(comp, out);
+        assertArrayEquals(data, out);
+        assertEquals(data[100], c.get(comp, 100));
+
+        assertEquals(1, metrics.getCompressCalls());
+        assertEquals(1, metrics.getDecompressCalls());
+        assertEquals(1000, metrics.getValuesCompressed());
+        assertEquals(comp.length, metrics.getWordsProduced());
+        assertEquals(10, metrics.getOverflowValues());
+        assertEquals(1, metrics.getKHistogram()[4]);
+        assertEquals(comp.length * 32.0 / 1000, metrics.bitsPerValue(CompressionType.OVERFLOW), 1e-9);
+        assertEquals(1, metrics.getVariantSummary().length);
+
+        ObjectName on = metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(on, "CompressCalls"));
+            server.invoke(on, "reset", null, null);
+            assertEquals(0, metrics.getValuesCompressed());
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
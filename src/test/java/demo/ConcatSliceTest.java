@@ -0,0 +1,75 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ConcatSliceTest {
+
+    private static int[] compress(CompressionType t, int k, int[] data) {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        opts.k = k;
+        return CompressorFactory.create(t, opts).compress(data);
+    }
+
+    private static int[] values(int[] comp) {
+        int[] out = new int[CompressorFactory.sizeOf(comp)];
+        CompressorFactory.create(CompressorFactory.typeOf(comp), null).decompress(comp, out);
+        return out;
+    }
+
+    @Test
+    public void concatAndSliceMatchRecompression() {
+        Random rnd = new Random(46);
+        int[] a = new int[1001];
+        int[] b = new int[777];
+        for (int i = 0; i < a.length; i++) a[i] = rnd.nextInt(1 << 7);
+        for (int i = 0; i < b.length; i++) b[i] = rnd.nextInt(1 << 13);
+        int[] ab = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, ab, a.length, b.length);
+        int[] ba = Arrays.copyOf(b, ab.length);
+        System.arraycopy(a, 0, ba, b.length, a.length);
+        for (CompressionType t : new CompressionType[] {CompressionType.CROSSING, CompressionType.NO_CROSSING}) {
+            // même largeur : copie de bits / de words
+            assertArrayEquals(compress(t, 13, ab), Transcoder.concat(compress(t, 13, a), compress(t, 13, b)), t.name());
+            // largeurs différentes : a est élargi de 7 à 13 bits
+            assertArrayEquals(compress(t, 13, ab), Transcoder.concat(compress(t, 0, a), compress(t, 0, b)), t.name());
+            // ... et quand la partie étroite est la seconde
+            assertArrayEquals(compress(t, 13, ba), Transcoder.concat(compress(t, 0, b), compress(t, 0, a)), t.name());
+
+            int[] comp = compress(t, 0, ab);
+            for (int[] r : new int[][] {{0, ab.length}, {0, 10}, {5, 900}, {1000, 1778}, {400, 400}, {96, 1056}}) {
+                int[] s = Transcoder.slice(comp, r[0], r[1]);
+                assertArrayEquals(compress(t, 13, Arrays.copyOfRange(ab, r[0], r[1])), s, t + " " + r[0]);
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> Transcoder.slice(comp, 10, ab.length + 1));
+        }
+        // variantes mélangées : le résultat prend la variante du premier buffer
+        int[] mixed = Transcoder.concat(compress(CompressionType.NO_CROSSING, 0, b), compress(CompressionType.CROSSING, 0, a));
+        assertEquals(CompressionType.NO_CROSSING, CompressorFactory.typeOf(mixed));
+        assertArrayEquals(ba, values(mixed));
+        assertThrows(IllegalArgumentException.class,
+                () -> Transcoder.concat(compress(CompressionType.CROSSING, 0, a), compress(CompressionType.OVERFLOW, 0, b)));
+    }
+
+    @Test
+    public void concatManySmallSegments() {
+        Random rnd = new Random(47);
+        int[][] segments = new int[300][];
+        int[][] comps = new int[segments.length][];
+        int total = 0;
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = new int[rnd.nextInt(40)];
+            for (int i = 0; i < segments[s].length; i++) segments[s][i] = rnd.nextInt(1 << (1 + s % 20)) - ((s == 7 && i == 0) ? 1 << 30 : 0);
+            comps[s] = compress(CompressionType.CROSSING, s == 7 ? 32 : 0, segments[s]);
+            total += segments[s].length;
+        }
+        int[] all = new int[total];
+        int at = 0;
+        for (int[] seg : segments) { System.arraycopy(seg, 0, all, at, seg.length); at += seg.length; }
+        int[] merged = Transcoder.concat(comps);
+        assertArrayEquals(all, values(merged));
+    }
+}
@@ -0,0 +1,53 @@
+package demo;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void eachValueComesBackWithinOneSixtyFourth() {
+        Random rnd = new Random(48);
+        long[] values = new long[2000];
+        for (int i = 0; i < values.length; i++) {
+            int bits = 1 + rnd.nextInt(62);
+            values[i] = rnd.nextLong() >>> (64 - bits);
+        }
+        values[0] = 127; // dernière valeur exacte
+        values[1] = 128; // premier sous-intervalle
+        values[2] = Long.MAX_VALUE / 2;
+        for (long v : values) {
+            // un second enregistrement plus grand empêche le plafonnement à max de masquer le bucket
+            LatencyHistogram h = new LatencyHistogram();
+            h.record(v);
+            h.record(Long.MAX_VALUE);
+            long got = h.percentile(50);
+            assertTrue(got >= v, v + " -> " + got);
+            if (v < 128) assertEquals(v, got);
+            else assertTrue(got - v <= v / 64, v + " -> " + got);
+        }
+    }
+
+    @Test
+    public void percentilesTrackExactQuantiles() {
+        Random rnd = new Random(7);
+        long[] values = new long[100_000];
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.percentile(99));
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(3 + rnd.nextDouble() * 12); // ~20 ns .. ~3 ms, longue traîne
+            h.record(values[i]);
+        }
+        h.record(-5); // compté comme 0
+        Arrays.sort(values);
+        assertEquals(0, h.percentile(0));
+        for (double p : new double[] {50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(p / 100.0 * (values.length + 1)) - 2];
+            long got = h.percentile(p);
+            assertTrue(got >= exact && got - exact <= exact / 64, "p" + p + ": " + exact + " -> " + got);
+        }
+        assertEquals(values[values.length - 1], h.percentile(100));
+    }
+}
@@ -0,0 +1,71 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LongPackedArrayTest {
+
+    @Test
+    public void chunkedArrayRoundtripsAcrossChunkBoundaries() {
+        Random rnd = new Random(43);
+        int[] data = new int[10_000];
+        for (int i = 0; i < data.length; i++) data[i] = (i % 997 == 0) ? -rnd.nextInt(1000) - 1 : rnd.nextInt(1 << 11);
+        for (CompressionType t : new CompressionType[] {CompressionType.OVERFLOW, CompressionType.OVERFLOW_RANK, CompressionType.DICTIONARY}) {
+            LongPackedArray.Builder b = LongPackedArray.builder(t, null, 10);
+            b.addAll(data, 0, 3000);
+            for (int i = 3000; i < 3100; i++) b.add(data[i]);
+            b.addAll(data, 3100, data.length - 3100);
+            LongPackedArray a = b.build();
+            assertEquals(data.length, a.size());
+            assertEquals((data.length + 1023) / 1024, a.chunkCount());
+            if (t != CompressionType.DICTIONARY) assertTrue(a.compressedWords() < data.length, t.name());
+            for (int i = 0; i < data.length; i++) assertEquals(data[i], a.get((long) i), t.name());
+            int[] out = new int[5000];
+            a.get(1000L, out, 0, out.length);
+            for (int i = 0; i < out.length; i++) assertEquals(data[1000 + i], out[i], t.name());
+            assertThrows(IndexOutOfBoundsException.class, () -> a.get((long) data.length));
+            assertThrows(IndexOutOfBoundsException.class, () -> a.get(data.length - 10L, new int[20], 0, 20));
+        }
+        assertEquals(0, LongPackedArray.builder(CompressionType.CROSSING).build().size());
+        assertThrows(IllegalArgumentException.class, () -> LongPackedArray.builder(CompressionType.CROSSING, null, 31));
+        // chunkBits = 30 : le tampon ne grandit qu'avec les valeurs ajoutées (pas 4 Go d'avance).
+        LongPackedArray tiny = LongPackedArray.builder(CompressionType.CROSSING, null, 30).add(7).addAll(new int[] {8, 9}).build();
+        assertEquals(3, tiny.size());
+        assertEquals(9, tiny.get(2L));
+    }
+
+    @Test
+    public void defaultChunksStayBelowHumongousThresholdAndReload() {
+        Random rnd = new Random(44);
+        int[] data = new int[200_000];
+        for (int i = 0; i < data.length; i++) data[i] = rnd.nextInt(); // tout en overflow ou presque
+        int[] sorted = Arrays.stream(data).map(v -> v & Integer.MAX_VALUE).sorted().toArray();
+        for (CompressionType t : CompressionType.values()) {
+            int[] src;
+            if (t == CompressionType.ELIAS_FANO) src = sorted;
+            else if (t == CompressionType.CROSSING || t == CompressionType.NO_CROSSING) src = Arrays.stream(data).map(v -> v & Integer.MAX_VALUE).toArray();
+            else src = data; // négatives et toutes distinctes : pire cas des variantes adaptatives
+            LongPackedArray a = LongPackedArray.of(t, null, src);
+            int chunk = 1 << LongPackedArray.defaultChunkBits(t);
+            assertEquals((src.length + chunk - 1) / chunk, a.chunkCount(), t.name());
+            for (int[] c : a.chunks()) assertTrue(16 + c.length * 4L < LongPackedArray.HUMONGOUS_BYTES, t.name() + ": " + c.length * 4L + " octets");
+
+            LongPackedArray b = LongPackedArray.fromChunks(new ArrayList<>(a.chunks()));
+            assertEquals(src.length, b.size());
+            int[] out = new int[src.length];
+            b.decompress(out);
+            assertArrayEquals(src, out, t.name());
+            assertEquals(src[150_001], b.get(150_001L));
+        }
+        LongPackedArray a = LongPackedArray.of(CompressionType.OVERFLOW, null, data);
+        List<int[]> broken = new ArrayList<>(a.chunks());
+        broken.remove(1);
+        broken.add(0, broken.remove(broken.size() - 1)); // chunk partiel en tête
+        assertThrows(IllegalArgumentException.class, () -> LongPackedArray.fromChunks(broken));
+    }
+}
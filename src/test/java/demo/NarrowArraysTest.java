@@ -0,0 +1,49 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+public class NarrowArraysTest {
+
+    @Test
+    public void narrowDecompressionMatchesIntDecompression() {
+        Random rnd = new Random(48);
+        int[] small = new int[3000];
+        int[] medium = new int[3000];
+        for (int i = 0; i < small.length; i++) {
+            small[i] = rnd.nextInt(256);
+            medium[i] = rnd.nextInt(1 << 16);
+        }
+        for (CompressionType t : new CompressionType[] {CompressionType.CROSSING, CompressionType.NO_CROSSING}) {
+            IntCompressor c = CompressorFactory.create(t, null);
+            int[] cs = c.compress(small);
+            int[] cm = c.compress(medium);
+
+            byte[] b = NarrowArrays.decompressToBytes(cs);
+            short[] s = NarrowArrays.decompressToShorts(cm);
+            char[] ch = NarrowArrays.decompressToChars(cm);
+            assertEquals(small.length, b.length);
+            for (int i = 0; i < small.length; i++) {
+                assertEquals(small[i], b[i] & 0xFF, t.name());
+                assertEquals(medium[i], s[i] & 0xFFFF, t.name());
+                assertEquals(medium[i], ch[i], t.name());
+            }
+
+            byte[] part = new byte[1500];
+            NarrowArrays.decompressToBytes(cs, 1234, part, 10, 1490);
+            for (int i = 0; i < 1490; i++) assertEquals(small[1234 + i], part[10 + i] & 0xFF, t.name());
+            short[] shortsFromBytes = NarrowArrays.decompressToShorts(cs);
+            assertEquals(small[2999], shortsFromBytes[2999], t.name());
+
+            // k trop large : échec immédiat
+            assertThrows(IllegalArgumentException.class, () -> NarrowArrays.decompressToBytes(cm));
+            assertThrows(IllegalArgumentException.class, () -> NarrowArrays.decompressToBytes(cm, 0, new byte[1], 0, 1));
+            assertThrows(IndexOutOfBoundsException.class, () -> NarrowArrays.decompressToBytes(cs, 2990, new byte[20], 0, 20));
+            assertThrows(IllegalArgumentException.class, () -> NarrowArrays.decompressToBytes(cs, 0, new byte[5], 0, 10));
+        }
+        int[] overflow = CompressorFactory.create(CompressionType.OVERFLOW, null).compress(small);
+        assertThrows(IllegalArgumentException.class, () -> NarrowArrays.decompressToBytes(overflow));
+    }
+}
@@ -0,0 +1,67 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+public class OffHeapColumnStoreTest {
+
+    @Test
+    public void columnsLiveOffHeapUntilClose() {
+        Random rnd = new Random(34);
+        int[] flags = new int[5000];
+        for (int i = 0; i < flags.length; i++) flags[i] = (i / 700) % 3;
+        int[] ids = new int[5000];
+        for (int i = 0; i < ids.length; i++) ids[i] = rnd.nextInt(1 << 20);
+
+        OffHeapColumnStore store = new OffHeapColumnStore();
+        store.put("flags", flags, CompressionType.RLE);
+        store.put("ids", ids, CompressionType.CROSSING);
+        assertEquals(CompressionType.RLE, store.type("flags"));
+        assertEquals(5000, store.size("ids"));
+        assertTrue(store.offHeapBytes() > 0);
+        assertArrayEquals(flags, store.decompress("flags"));
+        for (int i = 0; i < ids.length; i += 17) assertEquals(ids[i], store.get("ids", i));
+
+        long before = store.offHeapBytes();
+        store.put("ids", new int[]{1, 2, 3}, CompressionType.NO_CROSSING); // remplacement
+        assertTrue(store.offHeapBytes() < before);
+        assertEquals(2, store.get("ids", 1));
+        assertTrue(store.remove("flags"));
+        assertThrows(IllegalArgumentException.class, () -> store.get("flags", 0));
+
+        store.close();
+        assertEquals(0, store.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> store.get("ids", 0));
+    }
+
+    @Test
+    public void decompressReadsTheDirectBufferWithoutHeapCopy() {
+        int[] values = new int[500_000];
+        Random rnd = new Random(340);
+        for (int i = 0; i < values.length; i++) values[i] = rnd.nextInt(1 << 20);
+        try (OffHeapColumnStore store = new OffHeapColumnStore()) {
+            for (CompressionType t : new CompressionType[]{CompressionType.CROSSING, CompressionType.STREAM_VBYTE, CompressionType.DICTIONARY}) {
+                store.put("c", values, t);
+                int[] dst = new int[values.length];
+                store.decompress("c", dst);
+                assertArrayEquals(values, dst, t.name());
+                int[] part = new int[1000];
+                store.decompress("c", 123_456, part, 0, part.length);
+                for (int i = 0; i < part.length; i++) assertEquals(values[123_456 + i], part[i], t.name());
+
+                assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+                long before = threads.getCurrentThreadAllocatedBytes();
+                store.decompress("c", dst);
+                long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+                // Le buffer compressé fait plus de 1 Mo : une copie sur le heap se verrait.
+                assertTrue(allocated < 64 * 1024, t + " : " + allocated + " octets alloués");
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
+public class SmallArraysTest {
+
+    @Test
+    public void compactHeaderRoundtripsEveryVariant() {
+        int[] small = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9, 3, 2, 3, 8, 4};
+        int[] sorted = {1, 2, 3, 5, 8, 13, 21, 34, 55, 89};
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        opts.compactHeader = true;
+        for (CompressionType t : CompressionType.values()) {
+            int[] data = (t == CompressionType.ELIAS_FANO) ? sorted : small;
+            IntCompressor c = CompressorFactory.create(t, opts);
+            int[] comp = c.compress(data);
+            int[] standard = CompressorFactory.create(t, null).compress(data);
+            assertTrue(comp.length <= standard.length - 3, t.name());
+            assertEquals(t, CompressorFactory.typeOf(comp));
+            assertEquals(data.length, CompressorFactory.sizeOf(comp));
+            int[] out = new int[data.length];
+            c.decompress(comp, out);
+            assertArrayEquals(data, out, t.name());
+            for (int i = 0; i < data.length; i++) assertEquals(data[i], c.get(comp, i), t.name());
+        }
+        int[] big = new int[1000]; // n >= 128 : varint sur 2 octets
+        for (int i = 0; i < big.length; i++) big[i] = i * 7;
+        int[] comp = CompressorFactory.create(CompressionType.OVERFLOW, opts).compress(big);
+        int[] out = new int[big.length];
+        CompressorFactory.create(CompressionType.OVERFLOW, null).decompress(comp, out);
+        assertArrayEquals(big, out);
+    }
+
+    @Test
+    public void batchPacksManySmallArrays() {
+        Random rnd = new Random(41);
+        int[][] arrays = new int[2000][];
+        long plainWords = 0;
+        for (int a = 0; a < arrays.length; a++) {
+            arrays[a] = new int[10 + rnd.nextInt(41)];
+            int bound = (a % 100 == 0) ? Integer.MAX_VALUE : 1 << (1 + rnd.nextInt(12));
+            for (int i = 0; i < arrays[a].length; i++) arrays[a][i] = rnd.nextInt(bound);
+            if (a == 7) arrays[a][3] = -42;
+            plainWords += arrays[a].length;
+        }
+        arrays[5] = new int[0];
+        int[] batch = SmallArrays.pack(arrays);
+        assertTrue(batch.length < plainWords / 2);
+        assertEquals(arrays.length, SmallArrays.count(batch));
+        for (int a = 0; a < arrays.length; a++) {
+            assertEquals(arrays[a].length, SmallArrays.length(batch, a));
+            assertArrayEquals(arrays[a], SmallArrays.unpack(batch, a));
+        }
+        assertEquals(-42, SmallArrays.get(batch, 7, 3));
+        assertEquals(arrays[1999][4], SmallArrays.get(batch, 1999, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> SmallArrays.get(batch, 5, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> SmallArrays.get(batch, 2000, 0));
+    }
+}
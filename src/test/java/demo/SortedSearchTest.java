@@ -0,0 +1,66 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SortedSearchTest {
+
+    private static int[] sortedData(int n, int seed) {
+        Random rnd = new Random(seed);
+        int[] a = new int[n];
+        int v = 0;
+        for (int i = 0; i < n; i++) {
+            v += rnd.nextInt(4); // doublons possibles
+            a[i] = v;
+        }
+        return a;
+    }
+
+    private static int lowerBoundPlain(int[] a, int key) {
+        int i = 0;
+        while (i < a.length && a[i] < key) i++;
+        return i;
+    }
+
+    private static int upperBoundPlain(int[] a, int key) {
+        int i = 0;
+        while (i < a.length && a[i] <= key) i++;
+        return i;
+    }
+
+    @Test
+    public void boundsMatchPlainArray() {
+        int[] data = sortedData(1000, 7);
+        for (CompressionType type : new CompressionType[]{CompressionType.CROSSING, CompressionType.NO_CROSSING, CompressionType.OVERFLOW}) {
+            int[] comp = CompressorFactory.create(type, null).compress(data);
+            SortedSearch.SkipIndex skip = SortedSearch.SkipIndex.build(comp, 16);
+            for (int key = -2; key <= data[data.length - 1] + 2; key++) {
+                int lb = lowerBoundPlain(data, key);
+                int ub = upperBoundPlain(data, key);
+                assertEquals(lb, SortedSearch.lowerBound(comp, key), type + " lowerBound " + key);
+                assertEquals(ub, SortedSearch.upperBound(comp, key), type + " upperBound " + key);
+                assertEquals(lb, skip.lowerBound(key), type + " skip lowerBound " + key);
+                assertEquals(ub, skip.upperBound(key), type + " skip upperBound " + key);
+                int expected = (lb < data.length && data[lb] == key) ? lb : -1;
+                assertEquals(expected, SortedSearch.indexOf(comp, key));
+                assertEquals(expected, skip.indexOf(key));
+            }
+        }
+    }
+
+    @Test
+    public void emptyAndNegatives() {
+        int[] empty = CompressorFactory.create(CompressionType.CROSSING, null).compress(new int[0]);
+        assertEquals(0, SortedSearch.lowerBound(empty, 5));
+        assertEquals(-1, SortedSearch.indexOf(empty, 5));
+        assertEquals(0, SortedSearch.SkipIndex.build(empty, 8).upperBound(5));
+
+        int[] neg = {-100000, -3, -1, 0, 2, 1024};
+        int[] comp = CompressorFactory.create(CompressionType.OVERFLOW, null).compress(neg);
+        for (int v : neg) assertEquals(Arrays.binarySearch(neg, v), SortedSearch.indexOf(comp, v));
+        assertEquals(2, SortedSearch.lowerBound(comp, -2));
+    }
+}
@@ -0,0 +1,70 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class SortedSetsTest {
+
+    private static int[] postings(Random rnd, int n, int maxGap) {
+        int[] a = new int[n];
+        int v = 0;
+        for (int i = 0; i < n; i++) { v += rnd.nextInt(maxGap); a[i] = v; } // doublons possibles (gap 0)
+        return a;
+    }
+
+    private static TreeSet<Integer> set(int[] a) {
+        TreeSet<Integer> s = new TreeSet<>();
+        for (int v : a) s.add(v);
+        return s;
+    }
+
+    private static int[] decompress(int[] comp, CompressionType type) {
+        IntCompressor c = CompressorFactory.create(type, null);
+        int[] out = new int[SortedSearch.upperBound(comp, Integer.MAX_VALUE)];
+        c.decompress(comp, out);
+        return out;
+    }
+
+    private static int[] toArray(TreeSet<Integer> s) {
+        return s.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Test
+    public void matchesTreeSetSemantics() {
+        Random rnd = new Random(2024);
+        CompressionType[] types = {CompressionType.CROSSING, CompressionType.NO_CROSSING,
+                CompressionType.OVERFLOW, CompressionType.ELIAS_FANO};
+        for (CompressionType ta : types) {
+            for (CompressionType tb : types) {
+                int[] a = postings(rnd, 2000, 20);
+                int[] b = postings(rnd, 150, 200);
+                int[] ca = CompressorFactory.create(ta, null).compress(a);
+                int[] cb = CompressorFactory.create(tb, null).compress(b);
+
+                TreeSet<Integer> inter = set(a); inter.retainAll(set(b));
+                TreeSet<Integer> uni = set(a); uni.addAll(set(b));
+                TreeSet<Integer> diff = set(a); diff.removeAll(set(b));
+
+                assertArrayEquals(toArray(inter), decompress(SortedSets.intersect(ca, cb, CompressionType.ELIAS_FANO), CompressionType.ELIAS_FANO), ta + "/" + tb);
+                assertArrayEquals(toArray(uni), decompress(SortedSets.union(ca, cb, CompressionType.CROSSING), CompressionType.CROSSING), ta + "/" + tb);
+                assertArrayEquals(toArray(diff), decompress(SortedSets.difference(ca, cb, CompressionType.NO_CROSSING), CompressionType.NO_CROSSING), ta + "/" + tb);
+                assertEquals(inter.size(), SortedSets.intersectCount(cb, ca));
+                assertEquals(uni.size(), SortedSets.unionCount(ca, cb));
+                assertEquals(diff.size(), SortedSets.differenceCount(ca, cb));
+            }
+        }
+    }
+
+    @Test
+    public void emptyInputs() {
+        int[] empty = CompressorFactory.create(CompressionType.CROSSING, null).compress(new int[0]);
+        int[] some = CompressorFactory.create(CompressionType.CROSSING, null).compress(new int[]{1, 2, 3});
+        assertEquals(0, SortedSets.intersectCount(empty, some));
+        assertEquals(3, SortedSets.unionCount(empty, some));
+        assertEquals(3, SortedSets.differenceCount(some, empty));
+        assertEquals(0, SortedSets.differenceCount(empty, some));
+    }
+}
@@ -55,6 +55,122 @@ public class TestSuiteTest {
         roundtrip(CompressionType.OVERFLOW, neg, opts);
     }
 
+    @Test
+    public void eliasFanoMonotone() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        Random rnd = new Random(99);
+        int[] a = new int[5000];
+        int v = 0;
+        for (int i = 0; i < a.length; i++) { v += rnd.nextInt(300); a[i] = v; }
+        roundtrip(CompressionType.ELIAS_FANO, a, opts);
+        roundtrip(CompressionType.ELIAS_FANO, new int[]{0, 0, 0, 7, 7, Integer.MAX_VALUE}, opts);
+        roundtrip(CompressionType.ELIAS_FANO, new int[0], opts);
+        roundtrip(CompressionType.ELIAS_FANO, java.util.stream.IntStream.range(0, 1000).toArray(), opts); // L = 0
+        IntCompressor c = CompressorFactory.create(CompressionType.ELIAS_FANO, opts);
+        int[] comp = c.compress(a);
+        for (int i = 0; i < a.length; i++) assertEquals(a[i], c.get(comp, i));
+        for (int key = -1; key <= a[a.length - 1] + 1; key += 37) {
+            int expected = 0;
+            while (expected < a.length && a[expected] < key) expected++;
+            assertEquals(expected, SortedSearch.lowerBound(comp, key), "nextGEQ " + key);
+        }
+        assertThrows(IllegalArgumentException.class, () -> c.compress(new int[]{3, 2}));
+        assertThrows(IllegalArgumentException.class, () -> c.compress(new int[]{-1, 2}));
+    }
+
+    @Test
+    public void dictionaryLowCardinality() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        int[] palette = {Integer.MIN_VALUE, -70000, 3, 1 << 30, Integer.MAX_VALUE};
+        Random rnd = new Random(5);
+        int[] a = new int[3000];
+        for (int i = 0; i < a.length; i++) a[i] = palette[rnd.nextInt(palette.length)];
+        roundtrip(CompressionType.DICTIONARY, a, opts);
+        roundtrip(CompressionType.DICTIONARY, new int[]{42, 42, 42}, opts); // d = 1, k = 0
+        roundtrip(CompressionType.DICTIONARY, new int[0], opts);
+        int[] comp = CompressorFactory.create(CompressionType.DICTIONARY, opts).compress(a);
+        assertTrue(comp.length < a.length / 8, "3 bits par code attendus");
+
+        int inRange = 0, eq = 0;
+        for (int v : a) { if (v >= -70000 && v <= 3) inRange++; if (v == 3) eq++; }
+        assertEquals(inRange, DictionaryPredicates.countInRange(comp, -70000, 3));
+        assertEquals(inRange, DictionaryPredicates.countInRange(comp, -70001, 4));
+        assertEquals(eq, DictionaryPredicates.countEquals(comp, 3));
+        assertEquals(0, DictionaryPredicates.countEquals(comp, 4));
+        int[] pos = DictionaryPredicates.selectInRange(comp, 1 << 30, Integer.MAX_VALUE);
+        for (int i : pos) assertTrue(a[i] >= 1 << 30);
+        assertEquals(Arrays.stream(a).filter(v -> v >= 1 << 30).count(), pos.length);
+    }
+
+    @Test
+    public void rleLongRuns() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        int[] a = new int[10000];
+        Arrays.fill(a, 0, 4000, 1);
+        Arrays.fill(a, 4000, 4001, -5);
+        Arrays.fill(a, 4001, 9000, 1 << 20);
+        Arrays.fill(a, 9000, 10000, 1);
+        roundtrip(CompressionType.RLE, a, opts);
+        roundtrip(CompressionType.RLE, new int[]{7}, opts);
+        roundtrip(CompressionType.RLE, new int[0], opts);
+        IntCompressor c = CompressorFactory.create(CompressionType.RLE, opts);
+        int[] comp = c.compress(a);
+        assertTrue(comp.length < 20, "4 runs attendus");
+        for (int i : new int[]{0, 3999, 4000, 4001, 8999, 9000, 9999}) assertEquals(a[i], c.get(comp, i));
+        roundtrip(CompressionType.RLE, new int[]{1, 2, 3, 3, 2, 1}, opts);
+    }
+
+    @Test
+    public void streamVByteMixedMagnitudes() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        Random rnd = new Random(31);
+        for (int n : new int[]{0, 1, 3, 4, 255, 256, 257, 1001}) {
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) a[i] = rnd.nextInt() >> rnd.nextInt(32); // 1 à 4 octets, négatifs inclus
+            roundtrip(CompressionType.STREAM_VBYTE, a, opts);
+            IntCompressor c = CompressorFactory.create(CompressionType.STREAM_VBYTE, opts);
+            int[] comp = c.compress(a);
+            for (int i = 0; i < n; i++) assertEquals(a[i], c.get(comp, i));
+        }
+    }
+
+    @Test
+    public void simple8bAdaptsPerWord() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        Random rnd = new Random(8);
+        int[] a = new int[20000];
+        for (int i = 0; i < a.length; i++) {
+            int zone = (i / 1000) % 4;
+            a[i] = (zone == 0) ? 0 : (zone == 1) ? rnd.nextInt(4) : (zone == 2) ? rnd.nextInt(1 << 12) : rnd.nextInt() >> rnd.nextInt(32);
+        }
+        roundtrip(CompressionType.SIMPLE8B, a, opts);
+        roundtrip(CompressionType.SIMPLE8B, new int[]{0, 0, 0}, opts);
+        roundtrip(CompressionType.SIMPLE8B, new int[]{-1}, opts);
+        roundtrip(CompressionType.SIMPLE8B, new int[0], opts);
+        IntCompressor c = CompressorFactory.create(CompressionType.SIMPLE8B, opts);
+        int[] comp = c.compress(a);
+        for (int i = 0; i < a.length; i += 7) assertEquals(a[i], c.get(comp, i));
+    }
+
+    @Test
+    public void overflowRankBeatsIndexedOverflowWithManyExceptions() {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        Random rnd = new Random(42);
+        int[] a = new int[50000];
+        for (int i = 0; i < a.length; i++) a[i] = (rnd.nextInt(10) == 0) ? rnd.nextInt() : rnd.nextInt(16);
+        roundtrip(CompressionType.OVERFLOW_RANK, a, opts);
+        roundtrip(CompressionType.OVERFLOW_RANK, new int[]{7, -3, 1 << 30, 0}, opts);
+        roundtrip(CompressionType.OVERFLOW_RANK, new int[0], opts);
+        IntCompressor c = CompressorFactory.create(CompressionType.OVERFLOW_RANK, opts);
+        int[] comp = c.compress(a);
+        for (int i = 0; i < a.length; i += 3) assertEquals(a[i], c.get(comp, i));
+        int[] range = new int[1500];
+        c.decompress(comp, 20001, range, 0, range.length);
+        for (int i = 0; i < range.length; i++) assertEquals(a[20001 + i], range[i]);
+        int[] indexed = CompressorFactory.create(CompressionType.OVERFLOW, opts).compress(a);
+        assertTrue(comp.length < indexed.length, comp.length + " vs " + indexed.length);
+    }
+
     private void roundtrip(CompressionType type, int[] data, CompressorFactory.Options opts) {
         IntCompressor c = CompressorFactory.create(type, opts);
         int[] comp = c.compress(data);
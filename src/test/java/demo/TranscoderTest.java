@@ -0,0 +1,55 @@
+package demo;
+
+import io.compress.intpack.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TranscoderTest {
+
+    private static int[] compress(CompressionType t, int k, int[] data) {
+        CompressorFactory.Options opts = new CompressorFactory.Options();
+        opts.k = k;
+        return CompressorFactory.create(t, opts).compress(data);
+    }
+
+    @Test
+    public void transcodeMatchesDecompressThenCompress() {
+        Random rnd = new Random(45);
+        int[] data = new int[5000];
+        for (int i = 0; i < data.length; i++) data[i] = rnd.nextInt(1 << 9) + ((i % 500 == 0) ? 1 << 20 : 0);
+        CompressionType[] sources = {CompressionType.CROSSING, CompressionType.NO_CROSSING, CompressionType.OVERFLOW,
+                CompressionType.OVERFLOW_RANK, CompressionType.STREAM_VBYTE, CompressionType.SIMPLE8B,
+                CompressionType.RLE, CompressionType.DICTIONARY};
+        for (CompressionType s : sources) {
+            int[] src = compress(s, 0, data);
+            for (CompressionType t : new CompressionType[] {CompressionType.CROSSING, CompressionType.NO_CROSSING}) {
+                assertArrayEquals(compress(t, 0, data), Transcoder.transcode(src, t, 0), s + "->" + t);
+                assertArrayEquals(compress(t, 24, data), Transcoder.transcode(src, t, 24), s + "->" + t);
+            }
+            // cible sans chemin direct : même résultat via decompress + compress
+            assertArrayEquals(compress(CompressionType.OVERFLOW_RANK, 0, data),
+                    Transcoder.transcode(src, CompressionType.OVERFLOW_RANK, 0), s.name());
+        }
+        int[] sorted = data.clone();
+        Arrays.sort(sorted);
+        int[] ef = compress(CompressionType.ELIAS_FANO, 0, sorted); // max lu dans le layout
+        for (CompressionType t : new CompressionType[] {CompressionType.CROSSING, CompressionType.NO_CROSSING})
+            assertArrayEquals(compress(t, 0, sorted), Transcoder.transcode(ef, t, 0), "ELIAS_FANO->" + t);
+        int[] empty = Transcoder.transcode(compress(CompressionType.CROSSING, 0, new int[0]), CompressionType.NO_CROSSING, 0);
+        assertEquals(0, CompressorFactory.sizeOf(empty));
+    }
+
+    @Test
+    public void transcodeRejectsValuesWiderThanK() {
+        int[] src = compress(CompressionType.OVERFLOW, 0, new int[] {1, 2, 3, 1 << 12, 5});
+        assertThrows(IllegalArgumentException.class, () -> Transcoder.transcode(src, CompressionType.CROSSING, 8));
+        int[] neg = compress(CompressionType.OVERFLOW, 0, new int[] {1, -2, 3});
+        assertThrows(IllegalArgumentException.class, () -> Transcoder.transcode(neg, CompressionType.NO_CROSSING, 0));
+        int[] wide = Transcoder.transcode(neg, CompressionType.CROSSING, 32);
+        int[] out = new int[3];
+        CompressorFactory.create(CompressionType.CROSSING, null).decompress(wide, out);
+        assertArrayEquals(new int[] {1, -2, 3}, out);
+    }
+}